@@ -14,6 +14,19 @@ which java
 # Build the application
 mvn clean compile assembly:single
 
+# Generate the uniform workload of this experiment size, if it is not available yet
+case ${1} in
+    10000000) workload="workloads/uniform_strategy_10M.dat" ;;
+    1000000) workload="workloads/uniform_strategy.dat" ;;
+    *) workload="workloads/uniform_strategy_10k.dat" ;;
+esac
+
+if [[ ! -f ${workload} ]]
+then
+    java -cp target/java-hpc-1.0-SNAPSHOT-jar-with-dependencies.jar benchmark.hardcoded.StrategyGenerator \
+        class_structure.json UNIFORM ${1} ${STRATEGY_SEED:-42} ${workload}
+fi
+
 # Create an array which will hold the experiment names
 if [[ $# -eq 1 ]]
 then
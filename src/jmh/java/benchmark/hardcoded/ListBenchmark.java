@@ -0,0 +1,129 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.ArrayListA0;
+import benchmark.hardcoded.types.ArrayListT;
+import benchmark.hardcoded.types.StrategyView;
+import generated.classes.A0;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH counterpart of {@link ClassHierarchy#exectueBenchmarks}. Each (benchmark method, samplingStrategy) pair maps
+ * onto one {@link EvaluationType}:
+ *
+ * <ul>
+ *     <li>addGeneric / addHardcoded &rarr; ADD_GENERIC_* / ADD_HARDCODED_*</li>
+ *     <li>getGeneric / getHardcoded &rarr; GET_GENERIC_* / GET_HARDCODED_*</li>
+ *     <li>callGeneric / callHardcoded &rarr; CALL_GENERIC_* / CALL_HARDCODED_*</li>
+ * </ul>
+ *
+ * where the suffix is TL for SAME_TOP_LVL, U for UNIFORM, L for SAME_LAST_LEAF, ZIPF for ZIPF, DEPTH for
+ * DEPTH_STRATIFIED and KMORPHIC for K_MORPHIC. The parameters of the latter three are read from the system properties
+ * described in {@link SamplingParameters}; pass them to the forks with {@code -jvmArgsAppend}. The retrieved elements are
+ * consumed by a {@link Blackhole}, so the retrieval loops cannot be eliminated as dead code.
+ *
+ * Build with {@code mvn clean package -Pjmh} and run with {@code java -jar target/benchmarks.jar}. The benchmarks
+ * must be started from the project root, since the class hierarchy and the strategies are read from there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ListBenchmark {
+
+    @Param({"UNIFORM", "SAME_TOP_LVL", "SAME_LAST_LEAF", "ZIPF", "DEPTH_STRATIFIED", "K_MORPHIC"})
+    public String samplingStrategy;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    /* The path to the json file which describes the class hierarchy */
+    @Param("class_structure.json")
+    public String hierarchyPath;
+
+    /* An optional stored strategy used instead of a freshly generated one for UNIFORM workloads */
+    @Param("")
+    public String strategyPath;
+
+    /* The seed of the generated strategies */
+    @Param("42")
+    public long seed;
+
+    private ClassHierarchy classHierarchy;
+    private A0[] objects;
+    private ArrayListT<A0> genericList;
+    private ArrayListA0 hardcodedList;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SamplingStrategy strategyType = SamplingStrategy.valueOf(this.samplingStrategy);
+
+        this.classHierarchy = new ClassHierarchy(this.hierarchyPath, "generated.classes");
+        FactoryCache factoryCache = this.classHierarchy.populateFactoryCache();
+
+        StrategyView strategy = strategyType == SamplingStrategy.UNIFORM && !this.strategyPath.isEmpty() ?
+                this.classHierarchy.loadStrategy(this.strategyPath) :
+                this.classHierarchy.generateStrategy(this.size, strategyType, this.seed);
+
+        if (strategy.size() != this.size)
+            throw new IllegalStateException("The strategy at " + this.strategyPath + " holds " + strategy.size() +
+                    " entries, but " + this.size + " were requested");
+
+        this.objects = this.classHierarchy.instantiateObjects(strategy, factoryCache);
+        this.genericList = this.classHierarchy.generateArrayListWorkloadA0(this.objects);
+        this.hardcodedList = this.classHierarchy.generateA0ListWorkloadA0(this.objects);
+    }
+
+    @Benchmark
+    public ArrayListT<A0> addGeneric() {
+        return this.classHierarchy.generateArrayListWorkloadA0(this.objects);
+    }
+
+    @Benchmark
+    public ArrayListA0 addHardcoded() {
+        return this.classHierarchy.generateA0ListWorkloadA0(this.objects);
+    }
+
+    @Benchmark
+    public void getGeneric(Blackhole blackhole) {
+        ArrayListT<A0> list = this.genericList;
+
+        for (int j = 0; j < list.size(); ++j)
+            blackhole.consume(list.get(j));
+    }
+
+    @Benchmark
+    public void getHardcoded(Blackhole blackhole) {
+        ArrayListA0 list = this.hardcodedList;
+
+        for (int j = 0; j < list.size(); ++j)
+            blackhole.consume(list.get(j));
+    }
+
+    @Benchmark
+    public int callGeneric() {
+        ArrayListT<A0> list = this.genericList;
+        int sum = 0;
+
+        for (int j = 0; j < list.size(); ++j)
+            sum += list.get(j).typeTag();
+
+        return sum;
+    }
+
+    @Benchmark
+    public int callHardcoded() {
+        ArrayListA0 list = this.hardcodedList;
+        int sum = 0;
+
+        for (int j = 0; j < list.size(); ++j)
+            sum += list.get(j).typeTag();
+
+        return sum;
+    }
+
+}
@@ -0,0 +1,85 @@
+package benchmark.hardcoded;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples class ids from an arbitrary discrete distribution in constant time, using Vose's alias method.
+ */
+class AliasSampler implements StrategySampler {
+    private final int[] classIds;
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * Builds the alias table of a distribution
+     *
+     * @param classIds the class ids which can be sampled
+     * @param weights the non-negative weights of the class ids; they do not need to be normalized
+     * @throws IllegalArgumentException if the weights are invalid
+     */
+    AliasSampler(int[] classIds, double[] weights) {
+        if (classIds.length != weights.length || classIds.length == 0)
+            throw new IllegalArgumentException("Expected one weight per class, got " + weights.length + " weights " +
+                    "for " + classIds.length + " classes");
+
+        int n = weights.length;
+        double sum = 0.0;
+
+        for (double weight : weights) {
+            if (weight < 0.0 || Double.isNaN(weight) || Double.isInfinite(weight))
+                throw new IllegalArgumentException("Illegal weight: " + weight);
+            sum += weight;
+        }
+
+        if (sum == 0.0)
+            throw new IllegalArgumentException("At least one weight must be positive");
+
+        this.classIds = classIds.clone();
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < n; ++i) {
+            scaled[i] = weights[i] * n / sum;
+
+            if (scaled[i] < 1.0)
+                small[smallCount++] = i;
+            else
+                large[largeCount++] = i;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            this.probabilities[less] = scaled[less];
+            this.aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+
+            if (scaled[more] < 1.0)
+                small[smallCount++] = more;
+            else
+                large[largeCount++] = more;
+        }
+
+        // Whatever remains has a probability of 1, up to rounding errors
+        while (largeCount > 0)
+            this.probabilities[large[--largeCount]] = 1.0;
+        while (smallCount > 0)
+            this.probabilities[small[--smallCount]] = 1.0;
+    }
+
+    @Override
+    public int nextClassId(SplittableRandom random) {
+        int column = random.nextInt(this.probabilities.length);
+
+        return random.nextDouble() < this.probabilities[column] ? this.classIds[column] :
+                this.classIds[this.aliases[column]];
+    }
+}
@@ -0,0 +1,8 @@
+package benchmark.hardcoded;
+
+enum AllocationOrder {
+    /* All objects are allocated by one thread, in strategy order, hence they are laid out contiguously in memory */
+    SEQUENTIAL,
+    /* Fixed size chunks of the strategy are allocated concurrently; the order is only preserved within a chunk */
+    CHUNKED
+}
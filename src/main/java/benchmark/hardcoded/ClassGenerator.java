@@ -4,38 +4,77 @@ import com.google.gson.Gson;
 import com.x5.template.Theme;
 import com.x5.template.Chunk;
 
+import benchmark.hardcoded.types.Tuple;
+
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Pattern;
 
 public class ClassGenerator {
 
     private final static String BASE_PACKAGE_HIERARCHY = "src.main.java";
     private final static String TEMPLATE_TOP_LEVEL_CLASS_NAME = "top_lvl_class";
     private final static String TEMPLATE_SUBCLASS_NAME = "subclass";
+    private final static String TEMPLATE_INTERFACE_NAME = "interface";
+    private final static String TEMPLATE_SPECIALIZED_LIST_NAME = "specialized_list";
+    private final static String TEMPLATE_TYPE_CHECK_NAME = "type_check";
+    private final static String TYPE_CHECK_PREFIX = "TypeCheck";
+    private final static String SPECIALIZED_LIST_PREFIX = "ArrayList";
+    private final static String LISTS_MODE = "--lists";
+    private final static String INTERFACE_PREFIX = "I";
     private final static String EXTENSION_TYPE = "txt";
 
+    /* The number of rendered classes which are written to disk at once */
+    private final static int WRITE_BATCH_SIZE = 1024;
+
+    /* Mixed into the seed of the final leaves, such that drawing them does not advance the random of the shape */
+    private final static long FINAL_SEED_MIX = 0x9E3779B97F4A7C15L;
+
     private String packagePath;
     private String baseClassName;
     private String jsonSavePath;
     private int maxChildren;
     private int maxDepth;
 
+    /* If set, every class Ax implements an interface IAx, which extends the interface of Ax's parent */
+    private boolean emitInterfaces;
+
+    /* If not null, the classes are rendered into this map, indexed by binary name, instead of being saved */
+    private Map<String, String> renderedClasses;
+
     /* We'll create one Theme object, since this can be reused */
     private Theme theme;
 
     /* We'll need a random to add some stochasticity to the generation process */
     private Random random;
 
+    /* The fraction of the leaves which are declared final; they are drawn from a separate random, such that the
+     * shape of the hierarchy does not depend on the fraction */
+    private double finalLeafFraction;
+    private Random finalRandom;
+    private final List<String> finalClassNames = new ArrayList<>();
+
     /* We'll store the path to the directory where the .java classes will be stored */
     private String saveDirectoryPath;
 
     /* We'll collect the generated classes in a vector aof ArrayLists so they can later be used */
     private List<String>[] classNames;
 
+    /* The rendered classes which are not written to disk yet */
+    private final List<Tuple<Path, byte[]>> pendingWrites = new ArrayList<>();
+
+    /* The names of the files saved by this generator, and how many of them already had the rendered content */
+    private final Set<String> savedFileNames = new HashSet<>();
+    private int writtenCount;
+    private int unchangedCount;
+
     public ClassGenerator(String packageName, int maxChildren, int maxDepth, String baseClassName,
                           String jsonSavePath) {
         this.packagePath = packageName;
@@ -44,7 +83,10 @@ public class ClassGenerator {
         this.baseClassName = baseClassName;
         this.jsonSavePath = jsonSavePath;
 
-        this.random = new Random();
+        // A fixed seed regenerates the same hierarchy, hence none of its files are rewritten
+        Long seed = Long.getLong("generator.seed");
+        this.random = seed != null ? new Random(seed) : new Random();
+        this.finalRandom = seed != null ? new Random(seed ^ FINAL_SEED_MIX) : new Random();
         this.theme = new Theme("src/themes", "");
         this.saveDirectoryPath = (BASE_PACKAGE_HIERARCHY + "." + this.packagePath).replace(".", "/");
 
@@ -53,6 +95,69 @@ public class ClassGenerator {
             this.classNames[i] = new ArrayList<>();
     }
 
+    public void setEmitInterfaces(boolean emitInterfaces) {
+        this.emitInterfaces = emitInterfaces;
+    }
+
+    /**
+     * Set the seed of the generator, instead of the generator.seed system property
+     *
+     * @param seed the seed which determines the shape of the hierarchy, and which leaves are final
+     */
+    public void setSeed(long seed) {
+        this.random = new Random(seed);
+        this.finalRandom = new Random(seed ^ FINAL_SEED_MIX);
+    }
+
+    /**
+     * Set the fraction of the leaves which are declared final (none by default). Since
+     * the leaves are drawn independently of the shape, generators with the same generator.seed produce the same
+     * hierarchy for every fraction, and the final leaves of a smaller fraction are final for any larger one as well.
+     *
+     * @param finalLeafFraction the fraction of final leaves, between 0 (none) and 1 (all)
+     */
+    public void setFinalLeafFraction(double finalLeafFraction) {
+        this.finalLeafFraction = finalLeafFraction;
+    }
+
+    /**
+     * Render the classes in memory instead of saving them under src/main/java, such that they can be compiled by an
+     * InMemoryCompiler. The top level class is not rendered in this mode: the subclasses are compiled against the
+     * top level class on the class path, such that the harness, which is typed against it, can use them.
+     *
+     * @param renderInMemory whether the classes should be rendered in memory
+     */
+    public void setRenderInMemory(boolean renderInMemory) {
+        this.renderedClasses = renderInMemory ? new LinkedHashMap<>() : null;
+    }
+
+    /**
+     * Get the classes rendered in memory
+     *
+     * @return the sources of the classes, indexed by binary name, or null if the classes are saved to disk
+     */
+    public Map<String, String> getRenderedClasses() {
+        return this.renderedClasses;
+    }
+
+    /**
+     * Get the leaves which were declared final
+     *
+     * @return the names of the final classes, in generation order
+     */
+    public List<String> getFinalClassNames() {
+        return this.finalClassNames;
+    }
+
+    /**
+     * Get the generated classes, in the format of class_structure.json
+     *
+     * @return the names of the classes at each level of the hierarchy
+     */
+    public List<String>[] getClassHierarchy() {
+        return this.classNames;
+    }
+
     /**
      * args: package hierarchy (last dir is package name), max nr of children per node, max depth (0 indexed)
      * Step 1: Make src directory hierarchy
@@ -60,12 +165,28 @@ public class ClassGenerator {
      * Step 3: Create the other classes as well
      * Step 4: Collect data in an array: List[] -> ArrayList<String>, i.e. level to classes at that level
      * Step 5: The path where the json file which defines the class hierarchy will be saved
+     * Step 6 (optional): Whether a mirroring interface hierarchy should be emitted as well
+     * The generator.seed system property fixes the shape, and generator.final.leaves declares a fraction of the leaves
+     * final
+     *
+     * Alternatively, with --lists as the first argument, generates list specializations for existing classes
+     * args: --lists, destination package of the lists, package of the classes, comma separated list of classes
      */
     public static void main(String[] args) throws IOException {
 
-        if (args.length != 5) {
+        if (args.length == 4 && args[0].equals(LISTS_MODE)) {
+            for (String elementClassName : args[3].split(","))
+                generateSpecializedList(args[1], args[2], elementClassName.trim());
+
+            System.out.println("The list specializations have been successfully created.");
+            return;
+        }
+
+        if (args.length != 5 && args.length != 6) {
             System.err.println("Invalid number of arguments!\nUsage: ClassGenerator " +
-                    "<destination_package> <max_children> <max_depth> <base_class_name> <json_save_path>");
+                    "<destination_package> <max_children> <max_depth> <base_class_name> <json_save_path> " +
+                    "[<emit_interfaces>]\n   or: ClassGenerator " + LISTS_MODE + " <destination_package> " +
+                    "<class_package> <class_name>[,<class_name>...]");
 
             System.exit(0xFF);
         }
@@ -78,7 +199,16 @@ public class ClassGenerator {
                 args[4]                     // The base name for the generated classes
         );
 
+        if (args.length == 6)
+            generator.setEmitInterfaces(Boolean.parseBoolean(args[5]));
+
+        generator.setFinalLeafFraction(Double.parseDouble(System.getProperty("generator.final.leaves", "0")));
+
         generator.generateClasses();
+        if (generator.emitInterfaces)
+            generator.generateInterfaceTypeChecks();
+
+        int staleCount = generator.removeStaleClasses();
 
         Gson gson = new Gson();
 
@@ -89,16 +219,18 @@ public class ClassGenerator {
         }
 
         // If we got to this place, then it means that no errors have occurred
-        System.out.println("The classes have been successfully created.");
+        System.out.println("The classes have been successfully created (" + generator.writtenCount + " written, " +
+                generator.unchangedCount + " unchanged, " + staleCount + " stale removed).");
     }
 
     public void generateClasses() throws IOException {
         // Create a directory hierarchy
-        new File(this.saveDirectoryPath).mkdirs();
+        if (this.renderedClasses == null)
+            new File(this.saveDirectoryPath).mkdirs();
 
         // We'll start creating the classes using a DFS approach
         String topLevelClassName = this.baseClassName + "0";
-        makeTopLevelClass(topLevelClassName);
+        makeTopLevelClass(topLevelClassName, 0);
         this.classNames[0].add(topLevelClassName);
 
         int childrenCount = random.nextInt(this.maxChildren) + 1;
@@ -108,14 +240,21 @@ public class ClassGenerator {
         for (int i = 0; i < childrenCount; ++i)
             count = generateChildren(count, 1, topLevelClassName, topLevelClassName);
 
+        flushWrites();
     }
 
     private int generateChildren(int count, int depth, String parent, String ancestors) throws IOException {
         if (depth <= this.maxDepth) {
-            String myName = this.baseClassName + count++;
+            int typeTag = count++;
+            String myName = this.baseClassName + typeTag;
             int childrenCount = random.nextInt(this.maxChildren) + 1;
 
-            makeSubclass(myName, parent, ancestors);
+            // Only the classes at the maximal depth are leaves, as every other class has at least one child
+            boolean isFinal = depth == this.maxDepth && this.finalRandom.nextDouble() < this.finalLeafFraction;
+
+            makeSubclass(myName, typeTag, parent, ancestors, isFinal);
+            if (isFinal)
+                this.finalClassNames.add(myName);
             this.classNames[depth].add(myName);
 
             ancestors += "." + myName;
@@ -126,27 +265,243 @@ public class ClassGenerator {
         return count;
     }
 
-    private void makeTopLevelClass(String name) throws IOException {
+    private void makeTopLevelClass(String name, int typeTag) throws IOException {
         Chunk chunk = this.theme.makeChunk(TEMPLATE_TOP_LEVEL_CLASS_NAME, EXTENSION_TYPE);
 
         chunk.set("package", this.packagePath);
         chunk.set("className", name);
+        chunk.set("typeTag", typeTag);
+
+        if (this.emitInterfaces) {
+            chunk.set("implementsClause", " implements " + INTERFACE_PREFIX + name);
+            makeInterface(INTERFACE_PREFIX + name, null);
+        }
 
-        saveClass(chunk, this.saveDirectoryPath + "/" + name + ".java");
+        // In memory, the subclasses are compiled against the top level class on the class path
+        if (this.renderedClasses == null)
+            emitClass(chunk, name);
     }
 
-    private void makeSubclass(String name, String parentName, String ancestors) throws IOException {
+    private void makeSubclass(String name, int typeTag, String parentName, String ancestors, boolean isFinal)
+            throws IOException {
         Chunk chunk = this.theme.makeChunk(TEMPLATE_SUBCLASS_NAME, EXTENSION_TYPE);
 
+        if (isFinal)
+            chunk.set("modifiers", "final ");
+
         chunk.set("package", this.packagePath);
         chunk.set("className", name);
+        chunk.set("typeTag", typeTag);
         chunk.set("parentClassName", parentName);
         chunk.set("ancestors", ancestors);
 
-        saveClass(chunk, this.saveDirectoryPath + "/" + name + ".java");
+        if (this.emitInterfaces) {
+            chunk.set("implementsClause", " implements " + INTERFACE_PREFIX + name);
+            makeInterface(INTERFACE_PREFIX + name, INTERFACE_PREFIX + parentName);
+        }
+
+        emitClass(chunk, name);
+    }
+
+    /**
+     * Generates a TypeCheckKernel for every generated class, named TypeCheck followed by the name of the class, in
+     * the package of the classes. Generating a hierarchy with max_children 1 yields a chain, whose kernels check
+     * against every depth.
+     *
+     * @throws IOException if a kernel cannot be written
+     */
+    public void generateTypeChecks() throws IOException {
+        for (List<String> level : this.classNames)
+            for (String targetClassName : level)
+                makeTypeCheck(targetClassName);
+
+        flushWrites();
+    }
+
+    /**
+     * Generates a TypeCheckKernel for every generated interface, named TypeCheck followed by the name of the
+     * interface, such that the interfaces can be checked against with constant-target bytecodes as well
+     *
+     * @throws IOException if a kernel cannot be written
+     * @throws IllegalStateException if the generator does not emit interfaces
+     */
+    public void generateInterfaceTypeChecks() throws IOException {
+        if (!this.emitInterfaces)
+            throw new IllegalStateException("The interface type checks require the interfaces to be emitted");
+
+        for (List<String> level : this.classNames)
+            for (String className : level)
+                makeTypeCheck(INTERFACE_PREFIX + className);
+
+        flushWrites();
+    }
+
+    private void makeTypeCheck(String targetName) throws IOException {
+        Chunk chunk = this.theme.makeChunk(TEMPLATE_TYPE_CHECK_NAME, EXTENSION_TYPE);
+
+        chunk.set("package", this.packagePath);
+        chunk.set("className", TYPE_CHECK_PREFIX + targetName);
+        chunk.set("targetClass", targetName);
+
+        emitClass(chunk, TYPE_CHECK_PREFIX + targetName);
+    }
+
+    private void makeInterface(String name, String parentName) throws IOException {
+        Chunk chunk = this.theme.makeChunk(TEMPLATE_INTERFACE_NAME, EXTENSION_TYPE);
+
+        chunk.set("package", this.packagePath);
+        chunk.set("interfaceName", name);
+
+        if (parentName != null)
+            chunk.set("extendsClause", " extends " + parentName);
+
+        emitClass(chunk, name);
+    }
+
+    /**
+     * Generates a specialization of ArrayListT for a class of the hierarchy, i.e. a list backed by an array of the
+     * class, together with a ListKernel which benchmarks it against ArrayListT. The list is named ArrayList followed
+     * by the name of the class.
+     *
+     * @param listPackage the package of the generated list
+     * @param elementPackage the package of the element class
+     * @param elementClassName the simple name of the element class
+     * @throws IOException if the list cannot be written
+     */
+    public static void generateSpecializedList(String listPackage, String elementPackage, String elementClassName)
+            throws IOException {
+        String saveDirectoryPath = (BASE_PACKAGE_HIERARCHY + "." + listPackage).replace(".", "/");
+        new File(saveDirectoryPath).mkdirs();
+
+        Chunk chunk = makeSpecializedList(new Theme("src/themes", ""), listPackage, elementPackage,
+                elementClassName);
+
+        saveClass(chunk, saveDirectoryPath + "/" + SPECIALIZED_LIST_PREFIX + elementClassName + ".java");
+    }
+
+    /**
+     * Renders a specialization of ArrayListT for a generated class in memory, like generateSpecializedList does on
+     * disk. The list is compiled together with the rendered hierarchy.
+     *
+     * @param listPackage the package of the generated list
+     * @param elementClassName the simple name of the element class, which is in the package of the generator
+     * @throws IllegalStateException if the generator does not render in memory
+     */
+    public void renderSpecializedList(String listPackage, String elementClassName) {
+        if (this.renderedClasses == null)
+            throw new IllegalStateException("The list specializations are only rendered in memory");
+
+        this.renderedClasses.put(listPackage + "." + SPECIALIZED_LIST_PREFIX + elementClassName,
+                makeSpecializedList(this.theme, listPackage, this.packagePath, elementClassName).toString());
+    }
+
+    private static Chunk makeSpecializedList(Theme theme, String listPackage, String elementPackage,
+                                             String elementClassName) {
+        Chunk chunk = theme.makeChunk(TEMPLATE_SPECIALIZED_LIST_NAME, EXTENSION_TYPE);
+
+        chunk.set("package", listPackage);
+        chunk.set("elementPackage", elementPackage);
+        chunk.set("elementClass", elementClassName);
+
+        return chunk;
+    }
+
+    /**
+     * Generates a subclass of a generated class which is not part of the hierarchy, i.e. it is neither listed by
+     * getClassHierarchy() nor in class_structure.json. Like a plugin, it is only loaded when asked for by name, e.g.
+     * after the hierarchy has been loaded and its code compiled.
+     *
+     * @param name the name of the subclass
+     * @param parentName the name of its parent
+     * @throws IOException if the subclass cannot be written
+     */
+    public void generateLateSubclass(String name, String parentName) throws IOException {
+        int typeTag = Arrays.stream(this.classNames).mapToInt(List::size).sum();
+
+        makeSubclass(name, typeTag, parentName, parentName, false);
+        flushWrites();
+    }
+
+    private void emitClass(Chunk chunk, String name) throws IOException {
+        if (this.renderedClasses != null) {
+            this.renderedClasses.put(this.packagePath + "." + name, chunk.toString());
+            return;
+        }
+
+        this.savedFileNames.add(name + ".java");
+        this.pendingWrites.add(new Tuple<>(Paths.get(this.saveDirectoryPath, name + ".java"),
+                chunk.toString().getBytes(StandardCharsets.UTF_8)));
+
+        if (this.pendingWrites.size() >= WRITE_BATCH_SIZE)
+            flushWrites();
+    }
+
+    /**
+     * Writes a rendered class, unless the file on disk has the same content. Unchanged files keep their timestamps,
+     * hence incremental compilers, such as the ShardedCompiler, do not recompile them.
+     *
+     * @param path the path of the class
+     * @param content the rendered class
+     * @return true if the file was written
+     */
+    private static boolean writeIfChanged(Path path, byte[] content) {
+        try {
+            if (Files.isRegularFile(path) && Files.size(path) == content.length &&
+                    Arrays.equals(Files.readAllBytes(path), content))
+                return false;
+
+            Files.write(path, content);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the pending classes in parallel
+     *
+     * @throws IOException if a class cannot be written
+     */
+    private void flushWrites() throws IOException {
+        try {
+            int written = (int) this.pendingWrites.parallelStream()
+                    .filter(write -> writeIfChanged(write.getFirst(), write.getSecond()))
+                    .count();
+
+            this.writtenCount += written;
+            this.unchangedCount += this.pendingWrites.size() - written;
+            this.pendingWrites.clear();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Deletes the classes (and interfaces, and their type checks) of earlier hierarchies which are not part of the
+     * generated one, such that they are not compiled against classes which no longer exist
+     *
+     * @return the number of deleted files
+     * @throws IOException if a file cannot be deleted
+     */
+    public int removeStaleClasses() throws IOException {
+        Pattern generatedName = Pattern.compile("(" + TYPE_CHECK_PREFIX + ")?(" + INTERFACE_PREFIX + ")?" +
+                Pattern.quote(this.baseClassName) + "\\d+\\.java");
+        File[] files = this.renderedClasses == null ? new File(this.saveDirectoryPath).listFiles() : null;
+        int count = 0;
+
+        if (files == null)
+            return 0;
+
+        for (File file : files)
+            if (generatedName.matcher(file.getName()).matches() && !this.savedFileNames.contains(file.getName())) {
+                Files.delete(file.toPath());
+                ++count;
+            }
+
+        return count;
     }
 
-    private void saveClass(Chunk chunk, String path) throws IOException {
+    private static void saveClass(Chunk chunk, String path) throws IOException {
         FileWriter out = new FileWriter(path);
 
         chunk.render(out);
@@ -2,25 +2,234 @@ package benchmark.hardcoded;
 
 import benchmark.hardcoded.types.ArrayListA0;
 import benchmark.hardcoded.types.ArrayListT;
+import benchmark.hardcoded.types.ArrayStrategy;
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.MappedStrategy;
+import benchmark.hardcoded.types.StrategyView;
 import benchmark.hardcoded.types.Triple;
-import benchmark.hardcoded.types.Tuple;
 import com.google.gson.Gson;
 import generated.classes.A0;
 
 import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 
 public class ClassHierarchy {
     /* The size of the block which is used during strategy storage */
-    private static final int BLOCK_SIZE = 100000;
+    static final int BLOCK_SIZE = 100000;
+
+    /* Whether the phases of the experiments are marked on stdout, such that a CompilationLog can follow them */
+    private static final boolean JIT_MARKERS = Boolean.getBoolean("jit.markers");
+
+    /* Seed and prime of the 64 bit FNV-1a hash used for fingerprinting the hierarchy */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
 
     private List<String>[] classHierarchy;
     private String packagePath;
 
-    public ClassHierarchy(String jsonPath, String packagePath) throws FileNotFoundException {
-        this.classHierarchy = (new Gson()).fromJson(new FileReader(jsonPath), List[].class);
+    /* The loader of the hierarchy's classes */
+    private ClassLoader classLoader = ClassHierarchy.class.getClassLoader();
+
+    /* Loads the classes of each level of the hierarchy concurrently, if not null */
+    private ForkJoinPool classLoadingPool;
+
+    /* The parameters of the skewed and structured sampling strategies */
+    private SamplingParameters samplingParameters = SamplingParameters.fromSystemProperties();
+
+    /* The order in which the objects of the workloads are allocated */
+    private AllocationOrder allocationOrder = AllocationOrder.SEQUENTIAL;
+
+    /* The seed of the generated workloads; the workload of every sampling strategy is drawn from it */
+    private long strategySeed = new Random().nextLong();
+
+    /* Accumulates the results of the virtual calls, such that the calls cannot be eliminated */
+    private int callSink;
+
+    /* The number of elements per timed batch of the traversals; 0 disables the per-batch latencies */
+    private int batchSize;
+
+    /* Records the allocations and collections of the timed sections, if not null */
+    private PhaseInstrumentation instrumentation;
+
+    /* Ends the warmups once they are steady, if not null; otherwise, a fixed number of warmup runs is used */
+    private WarmupController warmupController;
+
+    /* The classes in level order; the position of a class in this array is its class id */
+    private String[] classNames;
+
+    public ClassHierarchy(String jsonPath, String packagePath) throws IOException {
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.PARSE_HIERARCHY, jsonPath);
+        List<String>[] classHierarchy = readClassHierarchy(jsonPath);
+        event.commit();
+
+        initialize(classHierarchy, packagePath);
+    }
+
+    /**
+     * Reads the names of the classes at each level of a hierarchy, as saved by the ClassGenerator
+     *
+     * @param jsonPath the path to the JSON description of the hierarchy
+     * @return the names of the classes at each level of the hierarchy
+     * @throws IOException if the file cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String>[] readClassHierarchy(String jsonPath) throws IOException {
+        try (Reader reader = new FileReader(jsonPath)) {
+            return (new Gson()).fromJson(reader, List[].class);
+        }
+    }
+
+    /**
+     * Creates the driver of a hierarchy which is not described by a file, e.g. one generated in memory
+     *
+     * @param classHierarchy the names of the classes at each level of the hierarchy
+     * @param packagePath the package of the classes
+     */
+    public ClassHierarchy(List<String>[] classHierarchy, String packagePath) {
+        initialize(classHierarchy, packagePath);
+    }
+
+    private void initialize(List<String>[] classHierarchy, String packagePath) {
+        this.classHierarchy = classHierarchy;
         this.packagePath = packagePath;
+
+        int j = 0;
+        this.classNames = new String[getClassCount()];
+
+        for (List<String> s : this.classHierarchy)
+            for (String className : s)
+                this.classNames[j++] = className;
+    }
+
+    /**
+     * Set the loader of the hierarchy's classes, e.g. the GeneratedClassLoader of a hierarchy compiled in memory
+     *
+     * @param classLoader the class loader
+     */
+    public void setClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Load the classes of each level of the hierarchy concurrently on the common fork/join pool, instead of serially
+     *
+     * @param parallelClassLoading whether the classes are loaded concurrently
+     */
+    public void setParallelClassLoading(boolean parallelClassLoading) {
+        this.classLoadingPool = parallelClassLoading ? ForkJoinPool.commonPool() : null;
+    }
+
+    public SamplingParameters getSamplingParameters() {
+        return this.samplingParameters;
+    }
+
+    public void setSamplingParameters(SamplingParameters samplingParameters) {
+        this.samplingParameters = samplingParameters;
+    }
+
+    public void setAllocationOrder(AllocationOrder allocationOrder) {
+        this.allocationOrder = allocationOrder;
+    }
+
+    public long getStrategySeed() {
+        return this.strategySeed;
+    }
+
+    /**
+     * Set the seed of the workloads generated by exectueBenchmarks, such that they can be reproduced
+     *
+     * @param strategySeed the seed, e.g. the strategy.seed system property
+     */
+    public void setStrategySeed(long strategySeed) {
+        this.strategySeed = strategySeed;
+    }
+
+    /**
+     * Set the number of elements per timed batch of the traversals. When positive, the latency of every batch is
+     * recorded in addition to the time of the whole traversal, under the retrieval name suffixed by ", Batch".
+     *
+     * @param batchSize the number of elements per batch, or 0 to disable the per-batch latencies
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public PhaseInstrumentation getInstrumentation() {
+        return this.instrumentation;
+    }
+
+    /**
+     * Set the instrumentation of the timed sections. Warmup runs are not instrumented.
+     *
+     * @param instrumentation the instrumentation, or null to disable it
+     */
+    public void setInstrumentation(PhaseInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    public WarmupController getWarmupController() {
+        return this.warmupController;
+    }
+
+    /**
+     * Set the controller of the warmups. When set, the warmupRuns of exectueBenchmarks are ignored, and each
+     * group of experiments is warmed up until the controller deems it steady.
+     *
+     * @param warmupController the warmup controller, or null to use a fixed number of warmup runs
+     */
+    public void setWarmupController(WarmupController warmupController) {
+        this.warmupController = warmupController;
+    }
+
+    /**
+     * Get the classes of the hierarchy in level order. The index of a class in this array is its class id.
+     *
+     * @return the class names in level order
+     */
+    public String[] getClassNames() {
+        return this.classNames;
+    }
+
+    /**
+     * Computes a fingerprint of the hierarchy, which is used to check that a stored strategy was generated for the
+     * hierarchy it is applied to.
+     *
+     * @return a 64 bit FNV-1a hash over the levels of the hierarchy and their class names
+     */
+    public long getFingerprint() {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (List<String> s : this.classHierarchy) {
+            for (String className : s) {
+                for (int i = 0; i < className.length(); ++i)
+                    hash = (hash ^ className.charAt(i)) * FNV_PRIME;
+                hash = (hash ^ ',') * FNV_PRIME;
+            }
+            hash = (hash ^ ';') * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Converts a strategy of class names to a strategy of class ids.
+     *
+     * @param strategy an array of class names
+     * @return a view over the equivalent class ids
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
+     */
+    public StrategyView toStrategyView(String[] strategy) throws ClassNotFoundException {
+        ClassRegistry classRegistry = populateClassRegistry();
+        int[] res = new int[strategy.length];
+
+        for (int i = 0; i < strategy.length; ++i)
+            res[i] = classRegistry.getClassId(strategy[i]);
+
+        return new ArrayStrategy(res);
     }
 
     /**
@@ -35,42 +244,117 @@ public class ClassHierarchy {
     }
 
     /**
-     * Generate a sequence of classes which will be added to the data structures towards testing
+     * Generate a sequence of classes which will be added to the data structures towards testing. The classes are
+     * generated in parallel, and the result only depends on the seed.
      *
      * @param sampleCount the number of entries to be generated
      * @param strategyType the type of strategy to follow
-     * @return an array of Strings containing class names
-     */
-    public String[] generateStrategy(int sampleCount, SamplingStrategy strategyType) {
-        Random random = new Random();
-        String[] res = new String[sampleCount];
-
-        if (strategyType == SamplingStrategy.UNIFORM) {
-            int classCount = getClassCount();
-            int[] samples = random.ints(sampleCount, 0, classCount).toArray();
-
-            // As this is uniform sampling, we can simply concatenate the classHierarchy elements together and sample
-            int j = 0;
-            String[] classes = new String[classCount];
-
-            for (List<String> s : this.classHierarchy)
-                for (String className : s)
-                    classes[j++] = className;
-
-            for (int i = 0; i < sampleCount; ++i)
-                res[i] = classes[samples[i]];
-        } else if (strategyType == SamplingStrategy.SAME_TOP_LVL) {
-            for (int i = 0; i < sampleCount; ++i)
-                res[i] = this.classHierarchy[0].get(0);
-        } else if (strategyType == SamplingStrategy.SAME_LAST_LEAF) {
-            int maxDepth = this.classHierarchy.length - 1;
-            int maxWidth = this.classHierarchy[this.classHierarchy.length - 1].size() - 1;
-
-            for (int i = 0; i < sampleCount; ++i)
-                res[i] = this.classHierarchy[maxDepth].get(maxWidth);
-        }
+     * @param seed the seed of the strategy
+     * @return a view over the class ids of the strategy
+     * @throws ClassNotFoundException if the k-morphic classes are named, and the hierarchy cannot be loaded
+     */
+    public StrategyView generateStrategy(int sampleCount, SamplingStrategy strategyType, long seed)
+            throws ClassNotFoundException {
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.GENERATE_STRATEGY, strategyType.getDisplayName());
+        StrategyView strategy = new ArrayStrategy(new StrategyGenerator(makeSampler(strategyType), seed,
+                ForkJoinPool.commonPool()).generate(sampleCount));
+        event.commit();
+
+        return strategy;
+    }
 
-        return res;
+    /**
+     * Creates the sampler which draws the class ids of a strategy
+     *
+     * @param strategyType the type of strategy to follow
+     * @return the sampler of the strategy
+     * @throws ClassNotFoundException if the k-morphic classes are named, and the hierarchy cannot be loaded
+     */
+    StrategySampler makeSampler(SamplingStrategy strategyType) throws ClassNotFoundException {
+        switch (strategyType) {
+            case UNIFORM: {
+                // As this is uniform sampling, we can simply sample from the concatenated classHierarchy elements
+                int classCount = this.classNames.length;
+                return random -> random.nextInt(classCount);
+            }
+            case SAME_TOP_LVL: {
+                // The ids follow the level order, hence the root has id 0
+                return random -> 0;
+            }
+            case SAME_LAST_LEAF: {
+                // The last class of the deepest level has the last id
+                int lastLeafClassId = this.classNames.length - 1;
+                return random -> lastLeafClassId;
+            }
+            case ZIPF: {
+                int[] classIds = new int[this.classNames.length];
+                double[] weights = new double[this.classNames.length];
+
+                // The classes are ranked in level order, hence the classes closer to the root are the most frequent
+                for (int i = 0; i < classIds.length; ++i) {
+                    classIds[i] = i;
+                    weights[i] = 1.0 / Math.pow(i + 1, this.samplingParameters.getZipfExponent());
+                }
+
+                return new AliasSampler(classIds, weights);
+            }
+            case DEPTH_STRATIFIED: {
+                double[] shares = this.samplingParameters.getDepthShares();
+
+                if (shares.length == 0) {
+                    shares = new double[this.classHierarchy.length];
+                    Arrays.fill(shares, 1.0);
+                } else if (shares.length != this.classHierarchy.length) {
+                    throw new IllegalArgumentException("Expected " + this.classHierarchy.length + " depth shares, " +
+                            "got " + shares.length);
+                }
+
+                int[] classIds = new int[this.classNames.length];
+                double[] weights = new double[this.classNames.length];
+                int j = 0;
+
+                for (int depth = 0; depth < this.classHierarchy.length; ++depth)
+                    for (int i = 0; i < this.classHierarchy[depth].size(); ++i) {
+                        classIds[j] = j;
+                        weights[j++] = shares[depth] / this.classHierarchy[depth].size();
+                    }
+
+                return new AliasSampler(classIds, weights);
+            }
+            case K_MORPHIC: {
+                int k = this.samplingParameters.getKMorphicCount();
+                String[] classes = this.samplingParameters.getKMorphicClasses();
+                double[] weights = this.samplingParameters.getKMorphicWeights();
+
+                if (k < 1 || k > this.classNames.length)
+                    throw new IllegalArgumentException("k must be between 1 and " + this.classNames.length + ": " + k);
+                if (classes.length != 0 && classes.length != k)
+                    throw new IllegalArgumentException("Expected " + k + " k-morphic classes, got " + classes.length);
+                if (weights.length != 0 && weights.length != k)
+                    throw new IllegalArgumentException("Expected " + k + " k-morphic weights, got " + weights.length);
+
+                int[] classIds = new int[k];
+                ClassRegistry classRegistry = classes.length != 0 ? populateClassRegistry() : null;
+
+                // Unless the classes are chosen explicitly, they are spread evenly over the level order
+                for (int i = 0; i < k; ++i)
+                    classIds[i] = classes.length != 0 ? classRegistry.getClassId(classes[i]) :
+                            (int) ((long) i * this.classNames.length / k);
+
+                if (Arrays.stream(classIds).distinct().count() != k)
+                    throw new IllegalArgumentException("The k-morphic classes must be distinct: " +
+                            Arrays.toString(classes));
+
+                if (weights.length == 0) {
+                    weights = new double[k];
+                    Arrays.fill(weights, 1.0);
+                }
+
+                return new AliasSampler(classIds, weights);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported sampling strategy: " + strategyType);
+        }
     }
 
     /**
@@ -84,22 +368,36 @@ public class ClassHierarchy {
     }
 
     /**
-     * Construct a HashMap which points from class names to the classes themselves. This map can then be used
-     * in order to quickly lookup and instantiate class instances.
+     * Load the classes of the hierarchy and construct the registry which assigns them their class ids. The registry
+     * can then be used in order to quickly lookup the classes and their structure by id.
      *
-     * @return the HashMap of class names to the classes themselves
+     * @return the registry of the hierarchy's classes
      * @throws ClassNotFoundException
      */
-    public HashMap<String, Class> populateClassCache() throws ClassNotFoundException {
-        HashMap<String, Class> classCache = new HashMap<>();
+    public ClassRegistry populateClassRegistry() throws ClassNotFoundException {
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.LOAD_CLASSES, this.packagePath);
+        ClassRegistry classRegistry = new ClassRegistry(this.classHierarchy, this.packagePath, this.classLoader,
+                this.classLoadingPool);
+        event.commit();
 
-        for (List<String> s : this.classHierarchy)
-            for (String className : s)
-                // This condition should normally always yield True, hence the branch will be followed
-                if (!classCache.containsKey(className))
-                    classCache.put(className, Class.forName(this.packagePath + "." + className));
+        return classRegistry;
+    }
+
+    /**
+     * Construct the factories of all the classes in the hierarchy, indexed by class id. These are used in order to
+     * instantiate the classes without any reflection or name lookups.
+     *
+     * @return the cache of class factories
+     * @throws ClassNotFoundException
+     */
+    public FactoryCache populateFactoryCache() throws ClassNotFoundException {
+        ClassRegistry classRegistry = populateClassRegistry();
+
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.BUILD_FACTORIES, this.packagePath);
+        FactoryCache factoryCache = new FactoryCache(classRegistry);
+        event.commit();
 
-        return classCache;
+        return factoryCache;
     }
 
     public ArrayListT<A0> generateArrayListWorkloadA0(A0[] objects) {
@@ -121,18 +419,70 @@ public class ClassHierarchy {
     }
 
     /**
-     * Compute the mean and standard deviation of a list of integer values.
+     * Loads a strategy from a file. Binary strategy files are memory mapped, strategies split into JSON blocks by
+     * writeStrategy are streamed, and legacy Java-serialized files are deserialized; the latter two are converted to
+     * class ids.
+     *
+     * @param path the path to the strategy file, or the path and base name of the blocks of a JSON strategy
+     * @return a view over the strategy
+     * @throws IOException if the file cannot be read, or if it was generated for a different hierarchy
+     */
+    public StrategyView loadStrategy(String path) throws IOException, ClassNotFoundException {
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.LOAD_STRATEGY, path);
+
+        try {
+            if (new File(path + "_0.json").isFile())
+                return streamStrategy(path);
+
+            if (!StrategyFile.isStrategyFile(path))
+                return toStrategyView(deserializeStrategy(path));
+
+            MappedStrategy strategy = StrategyFile.map(path);
+
+            if (strategy.getFingerprint() != getFingerprint() || strategy.getClassCount() != this.classNames.length)
+                throw new IOException("The strategy at " + path + " was generated for a different class hierarchy");
+
+            return strategy;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Streams a strategy written by writeStrategy through a JsonStrategySource, which reads the next block while the
+     * current one is copied, hence the class names of at most two blocks are held in memory.
      *
-     * @param times a list of values of the Long type
-     * @return a tuple containing the mean on the first position and the standard deviation on the second position
+     * @param path the path and base name of the blocks, i.e. the path of a block without its _i.json suffix
+     * @return a view over the class ids of the strategy
+     * @throws IOException if a block cannot be read
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
      */
-    public Tuple<Double, Double> getMeanAndStdDev(ArrayList<Long> times) {
-        int size = times.size();
+    StrategyView streamStrategy(String path) throws IOException, ClassNotFoundException {
+        File base = new File(path);
+        int blockCount = 0;
+
+        while (new File(path + "_" + blockCount + ".json").isFile())
+            ++blockCount;
+
+        int[] classIds = new int[blockCount * BLOCK_SIZE];
+        int size = 0;
 
-        double meanVal = times.stream().reduce((Long x, Long y) -> x + y).get() / (double) size;
-        double stdDev = Math.sqrt(times.stream().mapToDouble((Long x) -> (Math.pow(x - meanVal, 2.0))).sum() / size); // (size - 1)
+        try (JsonStrategySource source = new JsonStrategySource(populateClassRegistry(), base.getParent() == null ?
+                "." : base.getParent(), base.getName(), blockCount)) {
+            while (source.hasNext()) {
+                int[] block = source.next();
 
-        return new Tuple<>(meanVal, stdDev);
+                if (size + block.length > classIds.length)
+                    classIds = Arrays.copyOf(classIds, size + block.length);
+
+                System.arraycopy(block, 0, classIds, size, block.length);
+                size += block.length;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new ArrayStrategy(size == classIds.length ? classIds : Arrays.copyOf(classIds, size));
     }
 
     public static void serializeStrategy(String[] strategy, String path) throws IOException {
@@ -144,12 +494,11 @@ public class ClassHierarchy {
     }
 
     /**
-     * This method writes a strategy to one or more files and returns it.
+     * This method writes a strategy to one or more files.
      *
      * @param strategy an array of strings which defines the strategy
      * @param path the path to the directory where the strategy will be saved
      * @param fileName the base name of the files which will store the strategy
-     * @return the read strategy
      */
     public static void writeStrategy(String[] strategy, String path, String fileName) throws IOException {
         Gson gson = new Gson();
@@ -159,41 +508,50 @@ public class ClassHierarchy {
 
         for (int i = 0; i < parts; ++i) {
             String name = path + "/" + fileName + "_" + i + ".json";
-            gson.toJson(Arrays.copyOfRange(strategy, i * BLOCK_SIZE,
-                    (i + 1) * BLOCK_SIZE < strategy.length ? (i + 1) * BLOCK_SIZE : strategy.length),
-                    new FileWriter(name));
+
+            try (Writer writer = new BufferedWriter(new FileWriter(name))) {
+                gson.toJson(Arrays.copyOfRange(strategy, i * BLOCK_SIZE,
+                        (i + 1) * BLOCK_SIZE < strategy.length ? (i + 1) * BLOCK_SIZE : strategy.length), writer);
+            }
         }
     }
 
     /**
-     * This method reads a strategy from a file and returns it.
+     * This method reads a strategy from a file and returns it. The whole strategy is held in memory as class names;
+     * loadStrategy streams it into class ids instead.
      *
      * @param path the path to the file containing the strategy
      * @param baseName the base name of the files storing the strategy
      * @param blockCount the number of files used to store the strategy
      * @return the read strategy
      */
-    public static String[] readStrategy(String path, String baseName, int blockCount) throws FileNotFoundException {
+    public static String[] readStrategy(String path, String baseName, int blockCount) throws IOException {
         Gson gson = new Gson();
         ArrayList<String> strategy = new ArrayList<>();
 
 
         for (int i = 0; i < blockCount; ++i) {
             String name = path + "/" + baseName + "_" + i + ".json";
-            strategy.addAll(
-                    gson.fromJson(new FileReader(name), ArrayList.class)
-            );
+
+            try (Reader reader = new BufferedReader(new FileReader(name))) {
+                strategy.addAll(Arrays.asList(gson.fromJson(reader, String[].class)));
+            }
         }
 
-        return (String[]) strategy.toArray();
+        return strategy.toArray(new String[0]);
     }
 
-    private A0[] instantiateObjects(String[] strategy, HashMap<String, Class> classCache) throws IllegalAccessException,
-            InstantiationException {
-        A0[] instantiatedObjects = new A0[strategy.length];
-
-        for (int i = 0; i < strategy.length; ++i)
-            instantiatedObjects[i] = (A0) classCache.get(strategy[i]).newInstance();
+    /**
+     * Instantiates the objects of a strategy, in the configured allocation order.
+     *
+     * @param strategy the strategy which defines the classes to instantiate
+     * @param factoryCache the factories of the classes, indexed by class id
+     * @return the instantiated objects, in strategy order
+     */
+    A0[] instantiateObjects(StrategyView strategy, FactoryCache factoryCache) {
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.INSTANTIATE_OBJECTS, this.allocationOrder.name());
+        A0[] instantiatedObjects = factoryCache.instantiate(strategy, this.allocationOrder);
+        event.commit();
 
         return instantiatedObjects;
     }
@@ -205,300 +563,419 @@ public class ClassHierarchy {
      * @param key the key of the experiment
      * @param newResult the result to be used for updating
      */
-    private void updateResultMapEntry(HashMap<String, ArrayList<Long>> resultMap, String key, long newResult) {
-        resultMap.get(key).add(newResult);
+    private void updateResultMapEntry(HashMap<String, LatencyHistogram> resultMap, String key, long newResult) {
+        resultMap.get(key).record(newResult);
     }
 
     /**
-     * Method which executes the benchmarks
+     * Get the name under which the per-batch latencies of a retrieval experiment are recorded
      *
-     * @param runCount the number of runs per experiment
-     * @param warmupRuns the number of warmup runs (these are not taken into consideration towards the final result)
-     * @param evaluationType the type of experiment being executed
-     * @param sampleCount the number of objects to be used as workloads
-     * @param uniformStrategy in case a UNIFORM workload is employed, this parameter may be optionally provided
-     *                        to avoid creating different uniform strategies
-     * @return a hash map of the results
-     * @throws ClassNotFoundException
+     * @param experiment the experiment
+     * @return the name of the per-batch latencies
      */
-    public HashMap<String, Tuple<Double, Double>> exectueBenchmarks(int runCount, int warmupRuns,
-                                                                    EvaluationType evaluationType, int sampleCount,
-                                                                    String[] uniformStrategy)
-            throws ClassNotFoundException, InstantiationException, IllegalAccessException {
-        long startTime;
-        long time;
-        HashMap<String, ArrayList<Long>> scores = new HashMap<>();
-        HashMap<String, A0[]> workloads = new HashMap<>();
-        HashMap<String, Class> classCache = populateClassCache();
-
-        /* Populate the workload map */
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_TL ||
-                evaluationType == EvaluationType.GET_HARDCODED_TL ||
-                evaluationType == EvaluationType.ADD_GENERIC_TL ||
-                evaluationType == EvaluationType.GET_GENERIC_TL) {
-            A0[] workload = instantiateObjects(generateStrategy(sampleCount, SamplingStrategy.SAME_TOP_LVL),
-                    classCache);
-            workloads.put("Top Level", workload);
+    private static String getBatchName(EvaluationType experiment) {
+        return experiment.getRetrievalName() + ", Batch";
+    }
 
+    /**
+     * Traverses a generic list, either retrieving every element or invoking typeTag() on it. If batch latencies are
+     * recorded, the traversal is timed in batches of batchSize elements.
+     *
+     * @param list the list to be traversed
+     * @param call whether typeTag() is invoked on the retrieved elements
+     * @param batchLatencies the histogram of the batch latencies, or null if the whole traversal is a single batch
+     * @return the time of the traversal in nanoseconds
+     */
+    private long traverseGeneric(ArrayListT<A0> list, boolean call, LatencyHistogram batchLatencies) {
+        int size = list.size();
+        int batchSize = batchLatencies == null ? size : this.batchSize;
+        long time = 0;
+        int sum = 0;
+
+        for (int from = 0; from < size; from += batchSize) {
+            int to = (int) Math.min((long) from + batchSize, size);
+            long startTime = System.nanoTime();
+
+            if (call)
+                for (int j = from; j < to; ++j)  { sum += list.get(j).typeTag(); }
+            else
+                for (int j = from; j < to; ++j)  { A0 a = list.get(j); }
+
+            long batchTime = System.nanoTime() - startTime;
+            time += batchTime;
+
+            if (batchLatencies != null)
+                batchLatencies.record(batchTime);
         }
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_L ||
-                evaluationType == EvaluationType.GET_HARDCODED_L ||
-                evaluationType == EvaluationType.ADD_GENERIC_L ||
-                evaluationType == EvaluationType.GET_GENERIC_L) {
-            A0[] workload = instantiateObjects(generateStrategy(sampleCount, SamplingStrategy.SAME_LAST_LEAF),
-                    classCache);
-            workloads.put("Leaf", workload);
+        this.callSink += sum;
 
-        }
+        return time;
+    }
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_U ||
-                evaluationType == EvaluationType.GET_HARDCODED_U ||
-                evaluationType == EvaluationType.ADD_GENERIC_U ||
-                evaluationType == EvaluationType.GET_GENERIC_U) {
-            A0[] workload = instantiateObjects(uniformStrategy == null ? generateStrategy(
-                    sampleCount, SamplingStrategy.UNIFORM) : uniformStrategy, classCache);
-            workloads.put("Uniform", workload);
+    /**
+     * The same as {@link #traverseGeneric(ArrayListT, boolean, LatencyHistogram)}, but over a hardcoded list
+     *
+     * @param list the list to be traversed
+     * @param call whether typeTag() is invoked on the retrieved elements
+     * @param batchLatencies the histogram of the batch latencies, or null if the whole traversal is a single batch
+     * @return the time of the traversal in nanoseconds
+     */
+    private long traverseHardcoded(ArrayListA0 list, boolean call, LatencyHistogram batchLatencies) {
+        int size = list.size();
+        int batchSize = batchLatencies == null ? size : this.batchSize;
+        long time = 0;
+        int sum = 0;
+
+        for (int from = 0; from < size; from += batchSize) {
+            int to = (int) Math.min((long) from + batchSize, size);
+            long startTime = System.nanoTime();
+
+            if (call)
+                for (int j = from; j < to; ++j)  { sum += list.get(j).typeTag(); }
+            else
+                for (int j = from; j < to; ++j)  { A0 a = list.get(j); }
+
+            long batchTime = System.nanoTime() - startTime;
+            time += batchTime;
+
+            if (batchLatencies != null)
+                batchLatencies.record(batchTime);
         }
 
-        /* Populate the result map */
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_TL ||
-                evaluationType == EvaluationType.GET_HARDCODED_TL)
-            scores.put("Custom List, Top Level, Creation", new ArrayList<>());
+        this.callSink += sum;
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_L ||
-                evaluationType == EvaluationType.GET_HARDCODED_L)
-            scores.put("Custom List, Leaf, Creation", new ArrayList<>());
+        return time;
+    }
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_U ||
-                evaluationType == EvaluationType.GET_HARDCODED_U)
-            scores.put("Custom List, Uniform, Creation", new ArrayList<>());
+    /**
+     * Executes one run over a set of experiments: the lists are created first (generic ones before hardcoded ones),
+     * then traversed in the same order. CALL experiments invoke typeTag() on every retrieved element. If the run is
+     * recorded and the instrumentation is set, every timed section is instrumented as a phase named after its result.
+     *
+     * @param experiments the experiments to be executed
+     * @param workloads the instantiated objects of each sampling strategy
+     * @param scores the result map, or null if the run is a warmup run, which is neither timed nor recorded
+     */
+    private void runExperiments(List<EvaluationType> experiments, Map<SamplingStrategy, A0[]> workloads,
+                                HashMap<String, LatencyHistogram> scores) {
+        long startTime;
+        long time;
+        boolean instrumented = scores != null && this.instrumentation != null;
+        List<ArrayListT<A0>> genericLists = new ArrayList<>(Collections.nCopies(experiments.size(), null));
+        ArrayListA0[] hardcodedLists = new ArrayListA0[experiments.size()];
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_TL ||
-                evaluationType == EvaluationType.GET_GENERIC_TL)
-            scores.put("Generic List, Top Level, Creation", new ArrayList<>());
+        for (int i = 0; i < experiments.size(); ++i) {
+            EvaluationType experiment = experiments.get(i);
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_L ||
-                evaluationType == EvaluationType.GET_GENERIC_L)
-            scores.put("Generic List, Leaf, Creation", new ArrayList<>());
+            if (experiment.isGeneric()) {
+                A0[] workload = workloads.get(experiment.getSamplingStrategy());
+                PhaseEvent event = PhaseEvent.start(PhaseEvent.BUILD_LIST, experiment.getCreationName());
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_U ||
-                evaluationType == EvaluationType.GET_GENERIC_U)
-            scores.put("Generic List, Uniform, Creation", new ArrayList<>());
+                if (instrumented)
+                    this.instrumentation.begin();
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_TL)
-            scores.put("Custom List, Top Level, Retrieval", new ArrayList<>());
+                startTime = System.nanoTime();
+                genericLists.set(i, generateArrayListWorkloadA0(workload));
+                time = System.nanoTime() - startTime;
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_L)
-            scores.put("Custom List, Leaf, Retrieval", new ArrayList<>());
+                if (instrumented)
+                    this.instrumentation.end(experiment.getCreationName(), workload.length);
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_U)
-            scores.put("Custom List, Uniform, Retrieval", new ArrayList<>());
+                event.commit();
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_TL)
-            scores.put("Generic List, Top Level, Retrieval", new ArrayList<>());
+                if (scores != null) {
+                    updateResultMapEntry(scores, experiment.getCreationName(), time);
+                    System.gc();
+                }
+            }
+        }
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_L)
-            scores.put("Generic List, Leaf, Retrieval", new ArrayList<>());
+        for (int i = 0; i < experiments.size(); ++i) {
+            EvaluationType experiment = experiments.get(i);
 
-        if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_U)
-            scores.put("Generic List, Uniform, Retrieval", new ArrayList<>());
+            if (!experiment.isGeneric()) {
+                A0[] workload = workloads.get(experiment.getSamplingStrategy());
+                PhaseEvent event = PhaseEvent.start(PhaseEvent.BUILD_LIST, experiment.getCreationName());
 
-        /* These are the actual experiment runs, which count towards the final result */
-        for (int i = 0; i < warmupRuns; ++i) {
-            ArrayListA0 sameClassWorkloadA0 = null;
-            ArrayListA0 leafWorkloadA0 = null;
-            ArrayListA0 uniformClassWorkloadA0 = null;
-            ArrayListT<A0> sameClassWorkload = null;
-            ArrayListT<A0> leafClassWorkload = null;
-            ArrayListT<A0> uniformClassWorkload = null;
+                if (instrumented)
+                    this.instrumentation.begin();
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_TL ||
-                    evaluationType == EvaluationType.GET_HARDCODED_TL)
-                sameClassWorkloadA0 = generateA0ListWorkloadA0(workloads.get("Top Level"));
+                startTime = System.nanoTime();
+                hardcodedLists[i] = generateA0ListWorkloadA0(workload);
+                time = System.nanoTime() - startTime;
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_L ||
-                    evaluationType == EvaluationType.GET_HARDCODED_L)
-                leafWorkloadA0 = generateA0ListWorkloadA0(workloads.get("Leaf"));
+                if (instrumented)
+                    this.instrumentation.end(experiment.getCreationName(), workload.length);
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_U ||
-                    evaluationType == EvaluationType.GET_HARDCODED_U)
-                uniformClassWorkloadA0 = generateA0ListWorkloadA0(workloads.get("Uniform"));
+                event.commit();
 
+                if (scores != null) {
+                    updateResultMapEntry(scores, experiment.getCreationName(), time);
+                    System.gc();
+                }
+            }
+        }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_TL ||
-                    evaluationType == EvaluationType.GET_GENERIC_TL)
-                sameClassWorkload = generateArrayListWorkloadA0(workloads.get("Top Level"));
+        for (int i = 0; i < experiments.size(); ++i) {
+            EvaluationType experiment = experiments.get(i);
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_L ||
-                    evaluationType == EvaluationType.GET_GENERIC_L)
-                leafClassWorkload = generateArrayListWorkloadA0(workloads.get("Leaf"));
+            if (experiment.isGeneric() && experiment.isRetrieval()) {
+                ArrayListT<A0> list = genericLists.get(i);
+                LatencyHistogram batchLatencies = scores != null && this.batchSize > 0 ?
+                        scores.get(getBatchName(experiment)) : null;
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_U ||
-                    evaluationType == EvaluationType.GET_GENERIC_U)
-                uniformClassWorkload = generateArrayListWorkloadA0(workloads.get("Uniform"));
+                PhaseEvent event = PhaseEvent.start(PhaseEvent.TRAVERSE_LIST, experiment.getRetrievalName());
 
+                if (instrumented)
+                    this.instrumentation.begin();
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_TL)
-                for (int j = 0; j < sameClassWorkloadA0.size(); ++j) { A0 a = sameClassWorkloadA0.get(j); }
+                time = traverseGeneric(list, experiment.getOperation() == Operation.CALL, batchLatencies);
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_L)
-                for (int j = 0; j < leafWorkloadA0.size(); ++j) { A0 a =  leafWorkloadA0.get(j); }
+                if (instrumented)
+                    this.instrumentation.end(experiment.getRetrievalName(), list.size());
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_U)
-                for (int j = 0; j < uniformClassWorkloadA0.size(); ++j) { A0 a =  uniformClassWorkloadA0.get(j); }
+                event.commit();
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_TL)
-                for (int j = 0; j < sameClassWorkload.size(); ++j) { A0 a =  sameClassWorkload.get(j); }
+                if (scores != null) {
+                    updateResultMapEntry(scores, experiment.getRetrievalName(), time);
+                    System.gc();
+                }
+            }
+        }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_L)
-                for (int j = 0; j < leafClassWorkload.size(); ++j) { A0 a =  leafClassWorkload.get(j); }
+        for (int i = 0; i < experiments.size(); ++i) {
+            EvaluationType experiment = experiments.get(i);
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_U)
-                for (int j = 0; j < uniformClassWorkload.size(); ++j) { A0 a =  uniformClassWorkload.get(j); }
-        }
+            if (!experiment.isGeneric() && experiment.isRetrieval()) {
+                ArrayListA0 list = hardcodedLists[i];
+                LatencyHistogram batchLatencies = scores != null && this.batchSize > 0 ?
+                        scores.get(getBatchName(experiment)) : null;
 
-        // Run a GC call, to help guarantee that the first experiment will be `clean`
-        System.gc();
+                PhaseEvent event = PhaseEvent.start(PhaseEvent.TRAVERSE_LIST, experiment.getRetrievalName());
 
-        /* These are the actual experiment runs, which count towards the final result */
-        for (int i = 0; i < runCount; ++i) {
-            ArrayListA0 sameClassWorkloadA0 = null;
-            ArrayListA0 leafWorkloadA0 = null;
-            ArrayListA0 uniformClassWorkloadA0 = null;
-            ArrayListT<A0> sameClassWorkload = null;
-            ArrayListT<A0> leafClassWorkload = null;
-            ArrayListT<A0> uniformClassWorkload = null;
+                if (instrumented)
+                    this.instrumentation.begin();
 
-//            if (i % 20 == 0)
-//                System.out.println("At iteration " + i + "...");
+                time = traverseHardcoded(list, experiment.getOperation() == Operation.CALL, batchLatencies);
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_TL ||
-                    evaluationType == EvaluationType.GET_GENERIC_TL) {
-                startTime = System.nanoTime();
-                sameClassWorkload = generateArrayListWorkloadA0(workloads.get("Top Level"));
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Generic List, Top Level, Creation", time);
-                System.gc();
-            }
+                if (instrumented)
+                    this.instrumentation.end(experiment.getRetrievalName(), list.size());
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_L ||
-                    evaluationType == EvaluationType.GET_GENERIC_L) {
-                startTime = System.nanoTime();
-                leafClassWorkload = generateArrayListWorkloadA0(workloads.get("Leaf"));
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Generic List, Leaf, Creation", time);
-                System.gc();
-            }
+                event.commit();
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_GENERIC_U ||
-                    evaluationType == EvaluationType.GET_GENERIC_U) {
-                startTime = System.nanoTime();
-                uniformClassWorkload = generateArrayListWorkloadA0(workloads.get("Uniform"));
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Generic List, Uniform, Creation", time);
-                System.gc();
+                if (scores != null) {
+                    updateResultMapEntry(scores, experiment.getRetrievalName(), time);
+                    System.gc();
+                }
             }
+        }
+    }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_TL ||
-                    evaluationType == EvaluationType.GET_HARDCODED_TL) {
-                startTime = System.nanoTime();
-                sameClassWorkloadA0 = generateA0ListWorkloadA0(workloads.get("Top Level"));
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Custom List, Top Level, Creation", time);
-                System.gc();
-            }
+    /**
+     * Method which executes the benchmarks
+     *
+     * @param runCount the number of runs per experiment
+     * @param warmupRuns the number of warmup runs (these are not taken into consideration towards the final result);
+     *                   ignored if a warmup controller is set
+     * @param evaluationType the type of experiment being executed
+     * @param sampleCount the number of objects to be used as workloads
+     * @param uniformStrategy in case a UNIFORM workload is employed, this parameter may be optionally provided
+     *                        to avoid creating different uniform strategies
+     * @return a hash map of the results
+     * @throws ClassNotFoundException
+     */
+    public HashMap<String, LatencyHistogram> exectueBenchmarks(int runCount, int warmupRuns,
+                                                                    EvaluationType evaluationType, int sampleCount,
+                                                                    StrategyView uniformStrategy)
+            throws ClassNotFoundException {
+        if (evaluationType == EvaluationType.CALL_SWEEP)
+            return executeTypeCountSweep(runCount, warmupRuns, sampleCount);
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_L ||
-                    evaluationType == EvaluationType.GET_HARDCODED_L) {
-                startTime = System.nanoTime();
-                leafWorkloadA0 = generateA0ListWorkloadA0(workloads.get("Leaf"));
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Custom List, Leaf, Creation", time);
-                System.gc();
-            }
+        return executeExperiments(runCount, warmupRuns, evaluationType.getExperiments(), sampleCount,
+                uniformStrategy);
+    }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.ADD_HARDCODED_U ||
-                    evaluationType == EvaluationType.GET_HARDCODED_U) {
-                startTime = System.nanoTime();
-                uniformClassWorkloadA0 = generateA0ListWorkloadA0(workloads.get("Uniform"));
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Custom List, Uniform, Creation", time);
-                System.gc();
+    /**
+     * Executes the k-morphic virtual call experiments once for every number of receiver types in the sweep. The
+     * k classes of each step are the first k classes in level order, and the steps run in ascending order of k, such
+     * that the call sites never see more than k receiver types while a step is measured.
+     *
+     * @param runCount the number of runs per experiment
+     * @param warmupRuns the number of warmup runs of each step
+     * @param sampleCount the number of objects to be used as workloads
+     * @return a hash map of the results, where the K-Morphic part of each name is replaced by the number of types
+     * @throws ClassNotFoundException
+     */
+    private HashMap<String, LatencyHistogram> executeTypeCountSweep(int runCount, int warmupRuns,
+                                                                         int sampleCount)
+            throws ClassNotFoundException {
+        HashMap<String, LatencyHistogram> finalScores = new HashMap<>();
+        SamplingParameters sweepParameters = this.samplingParameters;
+        int[] typeCounts = sweepParameters.getSweepTypeCounts().clone();
+
+        Arrays.sort(typeCounts);
+
+        try {
+            for (int typeCount : typeCounts) {
+                if (typeCount < 1 || typeCount > this.classNames.length)
+                    continue;
+
+                this.samplingParameters = new SamplingParameters();
+                this.samplingParameters.setKMorphicCount(typeCount);
+                this.samplingParameters.setKMorphicClasses(Arrays.copyOf(this.classNames, typeCount));
+
+                HashMap<String, LatencyHistogram> results = executeExperiments(runCount, warmupRuns,
+                        EvaluationType.CALL_SWEEP.getExperiments(), sampleCount, null);
+
+                for (Map.Entry<String, LatencyHistogram> entry : results.entrySet()) {
+                    String name = entry.getKey().replace(SamplingStrategy.K_MORPHIC.getDisplayName(),
+                            typeCount + (typeCount == 1 ? " Type" : " Types"));
+
+                    finalScores.put(name, entry.getValue());
+                    if (this.instrumentation != null)
+                        this.instrumentation.rename(entry.getKey(), name);
+                }
             }
+        } finally {
+            this.samplingParameters = sweepParameters;
+        }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_TL) {
-                startTime = System.nanoTime();
-                for (int j = 0; j < sameClassWorkload.size(); ++j)  { A0 a = sameClassWorkload.get(j); }
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Generic List, Top Level, Retrieval", time);
-                System.gc();
-            }
+        return finalScores;
+    }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_L) {
-                startTime = System.nanoTime();
-                for (int j = 0; j < leafClassWorkload.size(); ++j)  { A0 a = leafClassWorkload.get(j); }
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Generic List, Leaf, Retrieval", time);
-                System.gc();
-            }
+    /**
+     * Executes a list of experiments
+     *
+     * @param runCount the number of runs per experiment
+     * @param warmupRuns the number of warmup runs (these are not taken into consideration towards the final result);
+     *                   ignored if a warmup controller is set
+     * @param experiments the experiments to be executed
+     * @param sampleCount the number of objects to be used as workloads
+     * @param uniformStrategy an optional strategy for the UNIFORM workload
+     * @return a hash map of the results
+     * @throws ClassNotFoundException
+     */
+    private HashMap<String, LatencyHistogram> executeExperiments(int runCount, int warmupRuns,
+                                                                      List<EvaluationType> experiments,
+                                                                      int sampleCount, StrategyView uniformStrategy)
+            throws ClassNotFoundException {
+        HashMap<String, LatencyHistogram> scores = new HashMap<>();
+        EnumMap<SamplingStrategy, A0[]> workloads = new EnumMap<>(SamplingStrategy.class);
+        FactoryCache factoryCache = populateFactoryCache();
+        Random seeds = new Random(this.strategySeed);
+
+        /* Populate the workload map; the workload of a sampling strategy is shared by all its experiments */
+        for (EvaluationType experiment : experiments) {
+            SamplingStrategy strategyType = experiment.getSamplingStrategy();
+
+            if (!workloads.containsKey(strategyType))
+                workloads.put(strategyType, instantiateObjects(
+                        strategyType == SamplingStrategy.UNIFORM && uniformStrategy != null ? uniformStrategy :
+                                generateStrategy(sampleCount, strategyType, seeds.nextLong()),
+                        factoryCache));
+        }
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_GENERIC_U) {
-                startTime = System.nanoTime();
-                for (int j = 0; j < uniformClassWorkload.size(); ++j)  { A0 a = uniformClassWorkload.get(j); }
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Generic List, Uniform, Retrieval", time);
-                System.gc();
-            }
+        /* Populate the result map */
+        for (EvaluationType experiment : experiments) {
+            scores.put(experiment.getCreationName(), new LatencyHistogram());
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_TL) {
-                startTime = System.nanoTime();
-                for (int j = 0; j < sameClassWorkloadA0.size(); ++j)  { A0 a = sameClassWorkloadA0.get(j); }
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Custom List, Top Level, Retrieval", time);
-                System.gc();
-            }
+            if (experiment.isRetrieval())
+                scores.put(experiment.getRetrievalName(), new LatencyHistogram());
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_L) {
-                startTime = System.nanoTime();
-                for (int j = 0; j < leafWorkloadA0.size(); ++j)  { A0 a = leafWorkloadA0.get(j); }
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Custom List, Leaf, Retrieval", time);
-                System.gc();
-            }
+            if (experiment.isRetrieval() && this.batchSize > 0)
+                scores.put(getBatchName(experiment), new LatencyHistogram());
+        }
+
+        /* These are the warmup runs, which do not count towards the final result */
+        if (JIT_MARKERS)
+            System.out.println(CompilationLog.WARMUP_MARKER);
+
+        String runName = experiments.toString();
 
-            if (evaluationType == EvaluationType.ALL || evaluationType == EvaluationType.GET_HARDCODED_U) {
+        if (this.warmupController != null) {
+            long startTime;
+            int i = 0;
+
+            this.warmupController.start();
+            do {
+                RunEvent event = RunEvent.start(runName, i++, true);
                 startTime = System.nanoTime();
-                for (int j = 0; j < uniformClassWorkloadA0.size(); ++j)  { A0 a = uniformClassWorkloadA0.get(j); }
-                time = System.nanoTime() - startTime;
-                updateResultMapEntry(scores, "Custom List, Uniform, Retrieval", time);
-                System.gc();
+                runExperiments(experiments, workloads, null);
+                event.commit();
+            } while (!this.warmupController.record(System.nanoTime() - startTime));
+        } else {
+            for (int i = 0; i < warmupRuns; ++i) {
+                RunEvent event = RunEvent.start(runName, i, true);
+                runExperiments(experiments, workloads, null);
+                event.commit();
             }
         }
 
-        HashMap<String, Tuple<Double, Double>> finalScores = new HashMap<>();
+        // Run a GC call, to help guarantee that the first experiment will be `clean`
+        System.gc();
+
+        if (JIT_MARKERS)
+            System.out.println(CompilationLog.MEASUREMENT_MARKER);
 
-        for (Map.Entry<String, ArrayList<Long>> experimentResults : scores.entrySet()) {
-            finalScores.put(
-                    experimentResults.getKey(),
-                    getMeanAndStdDev(experimentResults.getValue())
-            );
+        /* These are the actual experiment runs, which count towards the final result */
+        for (int i = 0; i < runCount; ++i) {
+//            if (i % 20 == 0)
+//                System.out.println("At iteration " + i + "...");
+
+            RunEvent event = RunEvent.start(runName, i, false);
+            runExperiments(experiments, workloads, scores);
+            event.commit();
         }
 
-        return finalScores;
+        if (JIT_MARKERS)
+            System.out.println(CompilationLog.END_MARKER);
+
+        return scores;
+    }
+
+    /* The columns of the latency statistics; all of them are reported in milliseconds */
+    static final String LATENCY_CSV_HEADER = "\"Mean Time [ms]\",\"Standard Deviation [ms]\",\"p50 [ms]\"," +
+            "\"p90 [ms]\",\"p99 [ms]\",\"p99.9 [ms]\",\"Max [ms]\"";
+
+    /**
+     * Formats the statistics of a latency histogram as CSV columns, matching LATENCY_CSV_HEADER
+     *
+     * @param latencies the histogram, recorded in nanoseconds
+     * @return the mean, standard deviation, p50, p90, p99, p99.9 and maximum in milliseconds
+     */
+    static String toLatencyCsv(LatencyHistogram latencies) {
+        return latencies.getMean() / 1e6 + "," + latencies.getStdDev() / 1e6 + "," +
+                latencies.getValueAtPercentile(50) / 1e6 + "," + latencies.getValueAtPercentile(90) / 1e6 + "," +
+                latencies.getValueAtPercentile(99) / 1e6 + "," + latencies.getValueAtPercentile(99.9) / 1e6 + "," +
+                latencies.getMaxValue() / 1e6;
+    }
+
+    /* The columns of the phase statistics */
+    static final String PHASE_CSV_HEADER = "\"Allocated [B/element]\",\"GC Count [per run]\"," +
+            "\"GC Time [ms per run]\",\"JIT Time [ms per run]\"";
+
+    /**
+     * Formats the statistics of a phase as CSV columns, matching PHASE_CSV_HEADER
+     *
+     * @param statistics the statistics of the phase, or null if the phase was not instrumented
+     * @return the allocated bytes per element, the collections and collection time per run, and the compilation
+     * time per run
+     */
+    static String toPhaseCsv(PhaseInstrumentation.PhaseStatistics statistics) {
+        if (statistics == null)
+            return ",,,";
+
+        return statistics.getAllocatedBytesPerElement() + "," + statistics.getGcCountPerRun() + "," +
+                statistics.getGcTimePerRun() + "," + statistics.getCompilationTimePerRun();
     }
 
     public static EvaluationType findExperiment(String experientName) {
-        switch (experientName.toUpperCase()) {
-            case "GET_GENERIC_TL": return EvaluationType.GET_GENERIC_TL;
-            case "GET_GENERIC_U": return EvaluationType.GET_GENERIC_U;
-            case "GET_GENERIC_L": return EvaluationType.GET_GENERIC_L;
-            case "GET_HARDCODED_TL": return EvaluationType.GET_HARDCODED_TL;
-            case "GET_HARDCODED_U": return EvaluationType.GET_HARDCODED_U;
-            case "GET_HARDCODED_L": return EvaluationType.GET_HARDCODED_L;
-            default:
-                System.err.println("Chosen experiment is not valid: " + experientName);
-                System.exit(0xFE);
+        try {
+            return EvaluationType.valueOf(experientName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Chosen experiment is not valid: " + experientName);
+            System.exit(0xFE);
         }
 
         return EvaluationType.GET_GENERIC_TL;
@@ -517,6 +994,89 @@ public class ClassHierarchy {
         return new Triple<>(1000000, 100, "uniform_strategy.dat");
     }
 
+    /**
+     * Executes an experiment with the settings given through the system properties. This is also the entry point of
+     * isolated experiments, hence all its parameters and its result are of types shared by all class loaders.
+     *
+     * @param experimentName the name of the experiment type
+     * @param experimentSize the size of the experiment
+     * @param strategySeed the seed of the generated workloads
+     * @param instrumentation the instrumentation of the timed sections, or null
+     * @param warmupController the controller of the warmups, or null to warm up for a tenth of the runs
+     * @return a hash map of the results
+     * @throws IOException if the strategy of the experiment cannot be loaded
+     * @throws ClassNotFoundException
+     */
+    public static HashMap<String, LatencyHistogram> executeExperiment(String experimentName, String experimentSize,
+                                                                      long strategySeed,
+                                                                      PhaseInstrumentation instrumentation,
+                                                                      WarmupController warmupController)
+            throws IOException, ClassNotFoundException {
+        EvaluationType evaluationType = ClassHierarchy.findExperiment(experimentName);
+        Triple<Integer, Integer, String> size = ClassHierarchy.getExperimentSize(experimentSize);
+
+        ClassHierarchy classHierarchy = new ClassHierarchy("class_structure.json", "generated.classes");
+        classHierarchy.setAllocationOrder(AllocationOrder.valueOf(
+                System.getProperty("allocation.order", AllocationOrder.SEQUENTIAL.name()).toUpperCase()));
+        classHierarchy.setBatchSize(Integer.getInteger("histogram.batch.size", 0));
+        classHierarchy.setParallelClassLoading(Boolean.getBoolean("registry.parallel"));
+        classHierarchy.setStrategySeed(strategySeed);
+        classHierarchy.setInstrumentation(instrumentation);
+        classHierarchy.setWarmupController(warmupController);
+
+        // This should be the number of experiment runs which are used to warm-up the system, but are not considered
+        int warmupRuns = size.getSecond() / 10;
+        // These are the runs which contribute towards the final results
+        int runCount = size.getSecond();
+
+        StrategyView strategy = classHierarchy.loadStrategy(size.getThird());
+
+        return classHierarchy.exectueBenchmarks(runCount, warmupRuns, evaluationType, size.getFirst(), strategy);
+    }
+
+    /**
+     * Executes an experiment in a fresh IsolatingClassLoader, such that it does not share any type profile or
+     * compiled code of the lists and the benchmark loops with the other experiments
+     *
+     * @param evaluationType the experiment
+     * @param experimentSize the size of the experiment
+     * @param strategySeed the seed of the generated workloads
+     * @param instrumentation the instrumentation of the timed sections, or null
+     * @param warmupController the controller of the warmups, or null to warm up for a tenth of the runs
+     * @return a hash map of the results
+     * @throws IOException if the strategy of the experiment cannot be loaded
+     * @throws ClassNotFoundException
+     */
+    @SuppressWarnings("unchecked")
+    static HashMap<String, LatencyHistogram> executeIsolated(EvaluationType evaluationType, String experimentSize,
+                                                             long strategySeed,
+                                                             PhaseInstrumentation instrumentation,
+                                                             WarmupController warmupController)
+            throws IOException, ClassNotFoundException {
+        try (IsolatingClassLoader classLoader = new IsolatingClassLoader(ClassHierarchy.class.getClassLoader())) {
+            Method entryPoint = classLoader.loadClass(ClassHierarchy.class.getName()).getMethod("executeExperiment",
+                    String.class, String.class, long.class, PhaseInstrumentation.class, WarmupController.class);
+
+            return (HashMap<String, LatencyHistogram>) entryPoint.invoke(null, evaluationType.name(), experimentSize,
+                    strategySeed, instrumentation, warmupController);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Could not call the isolated experiment " + evaluationType, e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof ClassNotFoundException)
+                throw (ClassNotFoundException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+
+            throw new IllegalStateException("The isolated experiment " + evaluationType + " has failed", cause);
+        }
+    }
+
     public static void main(String[] args) throws IOException, ClassNotFoundException, InstantiationException,
             IllegalAccessException {
 
@@ -528,25 +1088,43 @@ public class ClassHierarchy {
         EvaluationType evaluationType = ClassHierarchy.findExperiment(args[0]);
         Triple<Integer, Integer, String> experimentSize = ClassHierarchy.getExperimentSize(args[1]);
 
+        // The isolated experiments share the seed, hence they see the same workloads as a single run would
+        long strategySeed = Long.getLong("strategy.seed", new Random().nextLong());
 
-        ClassHierarchy classHierarchy = new ClassHierarchy("class_structure.json", "generated.classes");
+        PhaseInstrumentation instrumentation = null;
+        if (Boolean.parseBoolean(System.getProperty("phase.instrumentation", "true")))
+            instrumentation = new PhaseInstrumentation();
 
-        // This should be the number of experiment runs which are used to warm-up the system, but are not considered
-        int warmupRuns = experimentSize.getSecond() / 10;
-        // These are the runs which contribute towards the final results
-        int runCount = experimentSize.getSecond();
+        // Unless disabled, the warmup runs until steady state, or until as many runs as the measurement
+        WarmupController warmupController = null;
+        if (Boolean.parseBoolean(System.getProperty("warmup.adaptive", "true")))
+            warmupController = WarmupController.fromSystemProperties(Math.max(experimentSize.getSecond(), 100));
+
+        /* Run the experiments; when isolated, each of them runs in its own class loader, except for the sweep steps */
+        HashMap<String, LatencyHistogram> results = new HashMap<>();
 
-        /* Run the experiments */
-        String[] strategy = ClassHierarchy.deserializeStrategy(experimentSize.getThird());
-        HashMap<String, Tuple<Double, Double>> results =  classHierarchy.exectueBenchmarks(runCount, warmupRuns,
-                evaluationType, experimentSize.getFirst(), strategy);
+        if (Boolean.parseBoolean(System.getProperty("experiment.isolation", "false"))) {
+            List<EvaluationType> experiments = evaluationType == EvaluationType.CALL_SWEEP ?
+                    Collections.singletonList(evaluationType) : evaluationType.getExperiments();
+
+            for (EvaluationType experiment : experiments)
+                results.putAll(executeIsolated(experiment, args[1], strategySeed, instrumentation,
+                        warmupController));
+        } else {
+            results = executeExperiment(args[0], args[1], strategySeed, instrumentation, warmupController);
+        }
 
         /* Print the results */
-        System.out.println(evaluationType + " " + experimentSize.toString());
-        System.out.println("\"Experiment Name\",\"Mean Time [ms]\",\"Standard Deviation [ms]\"");
-        for (Map.Entry<String, Tuple<Double, Double>> entry : results.entrySet())
-            System.out.println("\"" + entry.getKey() + "\"," + entry.getValue().getFirst() / 10e6 + "," +
-                    entry.getValue().getSecond() / 10e6);
+        System.out.println(evaluationType + " " + experimentSize.toString() + " Seed " + strategySeed);
+        if (warmupController != null)
+            System.out.println("Warmup runs " + warmupController.getWarmupRuns() + ", steady " +
+                    warmupController.getSteadyWarmupCount() + "/" + warmupController.getWarmupRuns().size());
+
+        System.out.println("\"Experiment Name\"," + LATENCY_CSV_HEADER +
+                (instrumentation != null ? "," + PHASE_CSV_HEADER : ""));
+        for (Map.Entry<String, LatencyHistogram> entry : results.entrySet())
+            System.out.println("\"" + entry.getKey() + "\"," + toLatencyCsv(entry.getValue()) +
+                    (instrumentation != null ? "," + toPhaseCsv(instrumentation.get(entry.getKey())) : ""));
     }
 
 }
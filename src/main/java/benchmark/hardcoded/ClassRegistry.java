@@ -0,0 +1,267 @@
+package benchmark.hardcoded;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Assigns dense integer ids to the classes of the hierarchy and stores their structure in flat arrays indexed by id.
+ * The ids follow the level order of class_structure.json: the root has id 0, and the ids of each level follow those
+ * of the previous one. Since the generator lists the classes of a level in the order of their parents, the direct
+ * subclasses of every class have contiguous ids.
+ *
+ * Class names are only resolved when the registry is built, and by getClassId, which serves the edges that are
+ * given names, e.g. stored strategies; all other lookups are array accesses. The classes can be loaded
+ * concurrently, one level at a time: every class is loaded after its parent, while the classes of a level do not
+ * depend on each other.
+ */
+public class ClassRegistry {
+    /* The parent id of the root of the hierarchy */
+    public static final int NO_PARENT = -1;
+
+    private final String[] names;
+    private final Class<?>[] classes;
+    private final int[] depths;
+    private final int[] parentIds;
+    private final int[] firstSubclassIds;
+    private final int[] subclassCounts;
+    private final HashMap<String, Integer> nameIds;
+
+    /* The ids of the classes at depth d are in the range [levelStarts[d], levelStarts[d + 1]) */
+    private final int[] levelStarts;
+
+    /**
+     * Loads the classes of a hierarchy and builds its registry
+     *
+     * @param classHierarchy the classes at each level of the hierarchy
+     * @param packagePath the package of the classes
+     * @param classLoader the class loader used to load the classes
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
+     * @throws IllegalStateException if the classes of a level are not ordered by their parents
+     */
+    public ClassRegistry(List<String>[] classHierarchy, String packagePath, ClassLoader classLoader)
+            throws ClassNotFoundException {
+        this(classHierarchy, packagePath, classLoader, null);
+    }
+
+    /**
+     * Loads the classes of a hierarchy and builds its registry
+     *
+     * @param classHierarchy the classes at each level of the hierarchy
+     * @param packagePath the package of the classes
+     * @param classLoader the class loader used to load the classes; it must be parallel capable if a pool is given
+     * @param pool the pool which loads and initializes the classes of each level concurrently, or null to load
+     *             them serially
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
+     * @throws IllegalStateException if the classes of a level are not ordered by their parents
+     */
+    public ClassRegistry(List<String>[] classHierarchy, String packagePath, ClassLoader classLoader,
+                         ForkJoinPool pool) throws ClassNotFoundException {
+        int classCount = 0;
+        for (List<String> s : classHierarchy)
+            classCount += s.size();
+
+        this.names = new String[classCount];
+        this.classes = new Class<?>[classCount];
+        this.depths = new int[classCount];
+        this.parentIds = new int[classCount];
+        this.firstSubclassIds = new int[classCount];
+        this.subclassCounts = new int[classCount];
+        this.levelStarts = new int[classHierarchy.length + 1];
+        this.nameIds = new HashMap<>();
+
+        HashMap<Class<?>, Integer> classIds = new HashMap<>();
+        int id = 0;
+
+        for (int depth = 0; depth < classHierarchy.length; ++depth) {
+            this.levelStarts[depth] = id;
+
+            for (String className : classHierarchy[depth]) {
+                this.nameIds.put(className, id);
+                this.names[id] = className;
+                this.depths[id++] = depth;
+            }
+
+            loadLevel(this.levelStarts[depth], id, packagePath, classLoader, pool);
+        }
+
+        this.levelStarts[classHierarchy.length] = id;
+
+        for (int i = 0; i < classCount; ++i)
+            classIds.put(this.classes[i], i);
+
+        for (int i = 0; i < classCount; ++i) {
+            Integer parentId = classIds.get(this.classes[i].getSuperclass());
+            this.parentIds[i] = parentId == null ? NO_PARENT : parentId;
+            this.firstSubclassIds[i] = this.levelStarts[Math.min(this.depths[i] + 1, classHierarchy.length)];
+        }
+
+        // The classes are visited in id order, hence every subclass range is filled in from its first id onwards
+        for (int i = 0; i < classCount; ++i) {
+            int parentId = this.parentIds[i];
+
+            if (parentId == NO_PARENT)
+                continue;
+
+            if (this.subclassCounts[parentId] == 0)
+                this.firstSubclassIds[parentId] = i;
+            else if (this.firstSubclassIds[parentId] + this.subclassCounts[parentId] != i)
+                throw new IllegalStateException("The subclasses of " + this.names[parentId] + " are not contiguous " +
+                        "in their level; the hierarchy levels must be ordered by parent");
+
+            ++this.subclassCounts[parentId];
+        }
+    }
+
+    /**
+     * Loads and initializes the classes of a level
+     *
+     * @param from the id of the first class of the level
+     * @param to the id after the last class of the level
+     * @param packagePath the package of the classes
+     * @param classLoader the class loader used to load the classes
+     * @param pool the pool which loads the classes concurrently, or null to load them serially
+     * @throws ClassNotFoundException if a class cannot be loaded
+     */
+    private void loadLevel(int from, int to, String packagePath, ClassLoader classLoader, ForkJoinPool pool)
+            throws ClassNotFoundException {
+        if (pool == null) {
+            for (int i = from; i < to; ++i)
+                this.classes[i] = Class.forName(packagePath + "." + this.names[i], true, classLoader);
+
+            return;
+        }
+
+        List<Callable<Class<?>>> tasks = new ArrayList<>();
+        for (int i = from; i < to; ++i) {
+            String name = packagePath + "." + this.names[i];
+            tasks.add(() -> Class.forName(name, true, classLoader));
+        }
+
+        try {
+            List<Future<Class<?>>> results = pool.invokeAll(tasks);
+
+            for (int i = from; i < to; ++i)
+                this.classes[i] = results.get(i - from).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the classes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClassNotFoundException)
+                throw (ClassNotFoundException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+
+            throw new IllegalStateException("Could not load the classes", e.getCause());
+        }
+    }
+
+    public int getClassCount() {
+        return this.names.length;
+    }
+
+    public String getName(int classId) {
+        return this.names[classId];
+    }
+
+    /**
+     * Get the id of a class
+     *
+     * @param className the name of the class
+     * @return the position of the class in the level order listing of the hierarchy
+     * @throws IllegalArgumentException if the class is not part of the hierarchy
+     */
+    public int getClassId(String className) {
+        Integer classId = this.nameIds.get(className);
+
+        if (classId == null)
+            throw new IllegalArgumentException("Unknown class: " + className);
+
+        return classId;
+    }
+
+    public Class<?> getRegisteredClass(int classId) {
+        return this.classes[classId];
+    }
+
+    public int getDepth(int classId) {
+        return this.depths[classId];
+    }
+
+    /**
+     * Get the id of the direct superclass of a class
+     *
+     * @param classId the id of the class
+     * @return the id of the superclass, or NO_PARENT for the root of the hierarchy
+     */
+    public int getParentId(int classId) {
+        return this.parentIds[classId];
+    }
+
+    /**
+     * Get the first id of the range of direct subclasses of a class
+     *
+     * @param classId the id of the class
+     * @return the id of the first direct subclass; the range is empty if the class is a leaf
+     */
+    public int getFirstSubclassId(int classId) {
+        return this.firstSubclassIds[classId];
+    }
+
+    public int getSubclassCount(int classId) {
+        return this.subclassCounts[classId];
+    }
+
+    public boolean isLeaf(int classId) {
+        return this.subclassCounts[classId] == 0;
+    }
+
+    /**
+     * Get the number of levels of the hierarchy
+     *
+     * @return the maximal depth plus one
+     */
+    public int getLevelCount() {
+        return this.levelStarts.length - 1;
+    }
+
+    /**
+     * Get the first id of the classes at a given depth
+     *
+     * @param depth the depth of the level
+     * @return the id of the first class in the level
+     */
+    public int getLevelStart(int depth) {
+        return this.levelStarts[depth];
+    }
+
+    /**
+     * Get the end of the id range of the classes at a given depth
+     *
+     * @param depth the depth of the level
+     * @return one past the id of the last class in the level
+     */
+    public int getLevelEnd(int depth) {
+        return this.levelStarts[depth + 1];
+    }
+
+    /**
+     * Checks if a class is a (not necessarily direct) subclass of another
+     *
+     * @param classId the id of the class
+     * @param ancestorId the id of the potential ancestor
+     * @return true if the class is the ancestor or one of its descendants
+     */
+    public boolean isSubclassOf(int classId, int ancestorId) {
+        while (classId != NO_PARENT && this.depths[classId] > this.depths[ancestorId])
+            classId = this.parentIds[classId];
+
+        return classId == ancestorId;
+    }
+}
@@ -0,0 +1,153 @@
+package benchmark.hardcoded;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parses the -XX:+PrintCompilation output of a forked benchmark JVM and counts the compilation events of the
+ * benchmark methods in each phase of the benchmark. The phases are delimited by the markers which ClassHierarchy
+ * prints when the jit.markers system property is set.
+ *
+ * A method made not entrant at the highest tier (4, or no tier on JVMs without tiered compilation) counts as a
+ * deoptimization. Lower tier code made not entrant is simply replaced by a higher tier, hence it is not counted.
+ */
+public class CompilationLog {
+    /* The markers printed at the start of the warmup runs, at the start of the measured runs, and after them */
+    public static final String WARMUP_MARKER = "# JIT Phase: Warmup";
+    public static final String MEASUREMENT_MARKER = "# JIT Phase: Measurement";
+    public static final String END_MARKER = "# JIT Phase: End";
+
+    /* The CSV columns of the counters, which are totals over all the experiments of a JVM */
+    static final String CSV_HEADER = "\"JVM Warmup Compiles\",\"JVM Warmup OSR Compiles\",\"JVM Warmup Deopts\"," +
+            "\"JVM Measured Compiles\",\"JVM Measured OSR Compiles\",\"JVM Measured Deopts\"," +
+            "\"JVM Measured Deoptimized Methods\"";
+
+    /* The CSV columns of a row without counters, matching CSV_HEADER */
+    static final String EMPTY_CSV = ",,,,,,";
+
+    /* The packages of the methods whose events are counted */
+    private static final String[] COUNTED_PACKAGES = {"benchmark.", "generated."};
+
+    enum Phase {
+        STARTUP,
+        WARMUP,
+        MEASUREMENT,
+        TEARDOWN
+    }
+
+    private final EnumMap<Phase, int[]> counters = new EnumMap<>(Phase.class);
+    private final EnumMap<Phase, Set<String>> deoptimizedMethods = new EnumMap<>(Phase.class);
+    private Phase phase = Phase.STARTUP;
+
+    /* The indices of the counters of a phase */
+    private static final int COMPILES = 0;
+    private static final int OSR_COMPILES = 1;
+    private static final int DEOPTS = 2;
+
+    public CompilationLog() {
+        for (Phase p : Phase.values()) {
+            this.counters.put(p, new int[3]);
+            this.deoptimizedMethods.put(p, new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Parses a line of the output of the JVM. Lines which are neither markers nor compilation events are ignored.
+     * Since a benchmark may run several experiment groups, the counters of all the warmups, respectively of all
+     * the measurements, are added up.
+     *
+     * @param line the line
+     */
+    public void parse(String line) {
+        if (line.startsWith(WARMUP_MARKER)) {
+            this.phase = Phase.WARMUP;
+            return;
+        } else if (line.startsWith(MEASUREMENT_MARKER)) {
+            this.phase = Phase.MEASUREMENT;
+            return;
+        } else if (line.startsWith(END_MARKER)) {
+            this.phase = Phase.TEARDOWN;
+            return;
+        }
+
+        // An event looks like: <timestamp> <compile id> <attributes> <tier> <method> (<size> bytes) [<event>]
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens.length < 3 || !isNumber(tokens[0]) || !isNumber(tokens[1]))
+            return;
+
+        int methodIndex = 2;
+        while (methodIndex < tokens.length && !tokens[methodIndex].contains("::"))
+            ++methodIndex;
+
+        if (methodIndex == tokens.length || !isCounted(tokens[methodIndex]))
+            return;
+
+        boolean osr = false;
+        int tier = -1;
+        for (int i = 2; i < methodIndex; ++i) {
+            if (isNumber(tokens[i]))
+                tier = Integer.parseInt(tokens[i]);
+            else if (tokens[i].contains("%"))
+                osr = true;
+        }
+
+        int[] phaseCounters = this.counters.get(this.phase);
+
+        if (line.contains("made not entrant")) {
+            if (tier == 4 || tier == -1) {
+                ++phaseCounters[DEOPTS];
+                this.deoptimizedMethods.get(this.phase).add(tokens[methodIndex]);
+            }
+        } else if (!line.contains("made zombie") && !line.contains("made not compilable")) {
+            ++phaseCounters[osr ? OSR_COMPILES : COMPILES];
+        }
+    }
+
+    private static boolean isNumber(String token) {
+        if (token.isEmpty())
+            return false;
+
+        for (int i = 0; i < token.length(); ++i)
+            if (!Character.isDigit(token.charAt(i)))
+                return false;
+
+        return true;
+    }
+
+    private static boolean isCounted(String method) {
+        for (String prefix : COUNTED_PACKAGES)
+            if (method.startsWith(prefix))
+                return true;
+
+        return false;
+    }
+
+    public int getCompiles(Phase phase) {
+        return this.counters.get(phase)[COMPILES];
+    }
+
+    public int getOsrCompiles(Phase phase) {
+        return this.counters.get(phase)[OSR_COMPILES];
+    }
+
+    public int getDeopts(Phase phase) {
+        return this.counters.get(phase)[DEOPTS];
+    }
+
+    public Set<String> getDeoptimizedMethods(Phase phase) {
+        return this.deoptimizedMethods.get(phase);
+    }
+
+    /**
+     * Formats the counters of the warmup and measurement phases as CSV columns, matching CSV_HEADER
+     *
+     * @return the CSV columns
+     */
+    public String toCsv() {
+        return getCompiles(Phase.WARMUP) + "," + getOsrCompiles(Phase.WARMUP) + "," + getDeopts(Phase.WARMUP) + "," +
+                getCompiles(Phase.MEASUREMENT) + "," + getOsrCompiles(Phase.MEASUREMENT) + "," +
+                getDeopts(Phase.MEASUREMENT) + ",\"" + String.join(" ", getDeoptimizedMethods(Phase.MEASUREMENT)) +
+                "\"";
+    }
+}
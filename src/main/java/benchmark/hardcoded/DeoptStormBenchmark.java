@@ -0,0 +1,229 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.ListKernel;
+import benchmark.hardcoded.types.Triple;
+import generated.classes.A0;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the cost of the deoptimizations caused by loading a class late, e.g. a lazily loaded plugin. The retrieval
+ * and dispatch loop of a list specialization (ListKernel.callHardcoded) is warmed up on a workload of a single leaf,
+ * the last leaf of the hierarchy, which has no subclasses and is not final. Class hierarchy analysis (CHA) therefore
+ * finds a unique implementation of typeTag() for the static type of the list elements, and C2 binds the call to it
+ * statically, registering a dependency on the leaf having no overriding subclass.
+ *
+ * Mid-run, a subclass of the leaf which overrides typeTag() is defined, although it is never instantiated. Defining
+ * it invalidates the dependency, hence the compiled loop (and every other nmethod which depends on the leaf) is made
+ * not entrant, and the loop runs in the interpreter until it is compiled again. The latency of every batch, i.e. of
+ * every traversal of the list, is recorded before the subclass is loaded (Baseline), until a WarmupController deems
+ * the loop steady again (Recovery), and after that (Steady).
+ *
+ * The hierarchy, the list specialization and the subclass are generated and compiled in memory; the subclass is
+ * compiled with the others, but its class loader only defines it when it is asked for. With -Djit.markers=true, the
+ * recovery is marked as the measurement phase of a CompilationLog, e.g. to count the deoptimizations reported by
+ * -XX:+PrintCompilation. A flight recording shows the loading of the subclass as a PhaseEvent, next to the
+ * jdk.Deoptimization events of the JVM.
+ */
+public class DeoptStormBenchmark {
+    private static final boolean JIT_MARKERS = Boolean.getBoolean("jit.markers");
+
+    private static final String PACKAGE_PATH = "generated.classes";
+    private static final String LIST_PACKAGE = "generated.lists";
+    private static final String BASE_CLASS_NAME = "A";
+
+    /* The name of the late subclass, which is not part of the hierarchy */
+    private static final String PLUGIN_CLASS_NAME = "Plugin";
+
+    /* The columns of the summary */
+    static final String SUMMARY_CSV_HEADER = "\"Plugin Load Time [ms]\",\"Recovery Batches\",\"Recovered\"," +
+            "\"Recovery Time [ms]\",\"Excess Time [ms]\",\"Peak Slowdown\",\"Steady Slowdown\"";
+
+    private final ClassHierarchy classHierarchy;
+    private final GeneratedClassLoader classLoader;
+    private final String leafClassName;
+
+    /* The latency of every batch, in nanoseconds, per phase */
+    private final List<Long> baselineTimes = new ArrayList<>();
+    private final List<Long> recoveryTimes = new ArrayList<>();
+    private final List<Long> steadyTimes = new ArrayList<>();
+
+    /* Whether the recovery ended because the loop was steady, rather than at the upper bound */
+    private boolean recovered;
+    private long pluginLoadTime;
+
+    /* Accumulates the values returned by the kernel */
+    private long sink;
+
+    /**
+     * Generates, compiles and loads a hierarchy, together with the list specialization of its last leaf and the late
+     * subclass of that leaf
+     *
+     * @param maxChildren the maximal number of direct subclasses of a class
+     * @param maxDepth the maximal depth of the hierarchy, at least 1
+     * @throws IOException if the generator templates cannot be read
+     */
+    public DeoptStormBenchmark(int maxChildren, int maxDepth) throws IOException {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("The leaf must be a subclass of " + BASE_CLASS_NAME + "0, which is " +
+                    "shared with the class path: " + maxDepth);
+
+        ClassGenerator generator = new ClassGenerator(PACKAGE_PATH, maxChildren, maxDepth, BASE_CLASS_NAME, null);
+        generator.setRenderInMemory(true);
+        generator.generateClasses();
+
+        // The same leaf as the one of the SAME_LAST_LEAF strategy
+        List<String>[] levels = generator.getClassHierarchy();
+        List<String> deepestLevel = levels[levels.length - 1];
+        this.leafClassName = deepestLevel.get(deepestLevel.size() - 1);
+
+        generator.renderSpecializedList(LIST_PACKAGE, this.leafClassName);
+        generator.generateLateSubclass(PLUGIN_CLASS_NAME, this.leafClassName);
+
+        this.classLoader = new InMemoryCompiler().compile(generator.getRenderedClasses(),
+                DeoptStormBenchmark.class.getClassLoader());
+        this.classHierarchy = new ClassHierarchy(levels, PACKAGE_PATH);
+        this.classHierarchy.setClassLoader(this.classLoader);
+    }
+
+    private ListKernel loadKernel() {
+        return GeneratedClassLoader.newInstance(this.classLoader, LIST_PACKAGE + ".ArrayList" + this.leafClassName +
+                "$Kernel", ListKernel.class);
+    }
+
+    private long runBatch(ListKernel kernel) {
+        long startTime = System.nanoTime();
+        this.sink += kernel.callHardcoded();
+
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Warms the loop up, measures it, loads the late subclass, and measures the loop until it is steady again
+     *
+     * @param batchCount the number of batches of the baseline and of the steady phase
+     * @param sampleCount the number of objects in the list
+     * @param seed the seed of the workload
+     * @param warmupController decides when the warmup and the recovery are done
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
+     */
+    public void execute(int batchCount, int sampleCount, long seed, WarmupController warmupController)
+            throws ClassNotFoundException {
+        A0[] objects = this.classHierarchy.instantiateObjects(this.classHierarchy.generateStrategy(sampleCount,
+                SamplingStrategy.SAME_LAST_LEAF, seed), this.classHierarchy.populateFactoryCache());
+        ListKernel kernel = loadKernel();
+        kernel.createHardcoded(objects);
+
+        if (JIT_MARKERS)
+            System.out.println(CompilationLog.WARMUP_MARKER);
+
+        warmupController.start();
+        while (!warmupController.record(runBatch(kernel)));
+
+        for (int i = 0; i < batchCount; ++i)
+            this.baselineTimes.add(runBatch(kernel));
+
+        if (JIT_MARKERS)
+            System.out.println(CompilationLog.MEASUREMENT_MARKER);
+
+        PhaseEvent event = PhaseEvent.start(PhaseEvent.LOAD_PLUGIN, PACKAGE_PATH + "." + PLUGIN_CLASS_NAME);
+        long startTime = System.nanoTime();
+        Class.forName(PACKAGE_PATH + "." + PLUGIN_CLASS_NAME, true, this.classLoader);
+        this.pluginLoadTime = System.nanoTime() - startTime;
+        event.commit();
+
+        int steadyWarmupCount = warmupController.getSteadyWarmupCount();
+        warmupController.start();
+        boolean done = false;
+
+        while (!done) {
+            long time = runBatch(kernel);
+            this.recoveryTimes.add(time);
+            done = warmupController.record(time);
+        }
+
+        this.recovered = warmupController.getSteadyWarmupCount() > steadyWarmupCount;
+
+        if (JIT_MARKERS)
+            System.out.println(CompilationLog.END_MARKER);
+
+        for (int i = 0; i < batchCount; ++i)
+            this.steadyTimes.add(runBatch(kernel));
+    }
+
+    private static LatencyHistogram toHistogram(List<Long> times) {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long time : times)
+            histogram.record(time);
+
+        return histogram;
+    }
+
+    /**
+     * Summarizes the recovery. Once the subclass is loaded, CHA can no longer bind the call statically, hence the
+     * loop is slower for good; the excess time and the peak slowdown of the recovery are therefore relative to the
+     * steady phase, while the steady slowdown is the permanent loss relative to the baseline.
+     *
+     * @return the CSV row of the summary, matching SUMMARY_CSV_HEADER
+     */
+    String summarize() {
+        double baselineMean = toHistogram(this.baselineTimes).getMean();
+        double steadyMean = toHistogram(this.steadyTimes).getMean();
+        long recoveryTime = 0;
+        long peakTime = 0;
+
+        for (long time : this.recoveryTimes) {
+            recoveryTime += time;
+            peakTime = Math.max(peakTime, time);
+        }
+
+        return this.pluginLoadTime / 1e6 + "," + this.recoveryTimes.size() + "," + this.recovered + "," +
+                recoveryTime / 1e6 + "," + (recoveryTime - this.recoveryTimes.size() * steadyMean) / 1e6 + "," +
+                peakTime / steadyMean + "," + steadyMean / baselineMean;
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 3) {
+            System.err.println("Usage: DeoptStormBenchmark <10000|1000000|10000000> <max_children> <max_depth>");
+            System.exit(0xFF);
+        }
+
+        Triple<Integer, Integer, String> experimentSize = ClassHierarchy.getExperimentSize(args[0]);
+        DeoptStormBenchmark benchmark = new DeoptStormBenchmark(Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]));
+
+        int batchCount = Math.max(experimentSize.getSecond(), 100);
+        long seed = Long.getLong("strategy.seed", new Random().nextLong());
+        benchmark.execute(batchCount, experimentSize.getFirst(), seed, WarmupController.fromSystemProperties(
+                batchCount * 10));
+
+        System.out.println("DEOPT_STORM " + benchmark.leafClassName + " " + experimentSize.toString() + " Seed " +
+                seed);
+        System.out.println("\"Phase\",\"Batch\",\"Latency [ms]\"");
+
+        String[] phases = {"Baseline", "Recovery", "Steady"};
+        List<List<Long>> phaseTimes = new ArrayList<>();
+        phaseTimes.add(benchmark.baselineTimes);
+        phaseTimes.add(benchmark.recoveryTimes);
+        phaseTimes.add(benchmark.steadyTimes);
+
+        for (int i = 0; i < phases.length; ++i)
+            for (int batch = 0; batch < phaseTimes.get(i).size(); ++batch)
+                System.out.println(phases[i] + "," + batch + "," + phaseTimes.get(i).get(batch) / 1e6);
+
+        System.out.println("\"Phase\"," + ClassHierarchy.LATENCY_CSV_HEADER);
+        System.out.println("Baseline," + ClassHierarchy.toLatencyCsv(toHistogram(benchmark.baselineTimes)));
+        System.out.println("Steady," + ClassHierarchy.toLatencyCsv(toHistogram(benchmark.steadyTimes)));
+
+        System.out.println(SUMMARY_CSV_HEADER);
+        System.out.println(benchmark.summarize());
+
+        if (benchmark.sink == Long.MIN_VALUE)
+            System.out.println(benchmark.sink);
+    }
+}
@@ -0,0 +1,135 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.Triple;
+import generated.classes.A0;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Measures the cost of checkcast and instanceof against every ancestor of the leaves of a deep chain of classes.
+ * HotSpot checks against a class whose depth (with java.lang.Object at depth 0) is below the primary supertype limit
+ * of 8 with a single load from the fixed-size display of the checked class. Deeper classes are secondary supertypes,
+ * which are looked up through the one-element secondary super cache, and by a linear scan of the secondary supers
+ * when the cache misses.
+ *
+ * The chain A0, A1, ..., An is generated in memory (max_children 1) together with one TypeCheckKernel per class, and
+ * compiled against the A0 on the class path, hence A0 is at depth 1 and Ak at depth k + 1. The workload is drawn
+ * from the deepest LEAF_TYPES classes, such that the checks see several receiver types and C2 cannot replace them
+ * by a speculative exact type check; the targets are therefore the classes down to A(n - LEAF_TYPES + 1).
+ */
+public class DepthSweep {
+    /* The depth of the deepest primary supertype, counting java.lang.Object as depth 0 */
+    static final int PRIMARY_SUPER_LIMIT = 8;
+
+    /* The number of classes at the bottom of the chain which make up the workload */
+    private static final int LEAF_TYPES = 3;
+
+    private static final String PACKAGE_PATH = "generated.classes";
+    private static final String BASE_CLASS_NAME = "A";
+
+    private final ClassHierarchy classHierarchy;
+    private final GeneratedClassLoader classLoader;
+
+    /* Accumulates the values returned by the kernels */
+    private long sink;
+
+    /**
+     * Generates, compiles and loads a chain and its type check kernels
+     *
+     * @param chainDepth the depth of the deepest class of the chain, where A0 has depth 0
+     * @throws IOException if the generator templates cannot be read
+     */
+    public DepthSweep(int chainDepth) throws IOException {
+        if (chainDepth < LEAF_TYPES)
+            throw new IllegalArgumentException("The chain must be at least " + LEAF_TYPES + " classes deep: " +
+                    chainDepth);
+
+        ClassGenerator generator = new ClassGenerator(PACKAGE_PATH, 1, chainDepth, BASE_CLASS_NAME, null);
+        generator.setRenderInMemory(true);
+        generator.generateClasses();
+        generator.generateTypeChecks();
+
+        this.classLoader = new InMemoryCompiler().compile(generator.getRenderedClasses(),
+                DepthSweep.class.getClassLoader());
+        this.classHierarchy = new ClassHierarchy(generator.getClassHierarchy(), PACKAGE_PATH);
+        this.classHierarchy.setClassLoader(this.classLoader);
+
+        String[] classNames = this.classHierarchy.getClassNames();
+        SamplingParameters samplingParameters = new SamplingParameters();
+        samplingParameters.setKMorphicCount(LEAF_TYPES);
+        samplingParameters.setKMorphicClasses(Arrays.copyOfRange(classNames, classNames.length - LEAF_TYPES,
+                classNames.length));
+        this.classHierarchy.setSamplingParameters(samplingParameters);
+    }
+
+    /**
+     * Get the depth of a class of the chain in the supertype display, where java.lang.Object has depth 0
+     *
+     * @param classId the id of the class, which is also its depth in the chain
+     * @return the depth of the class in the display
+     */
+    static int getSuperDepth(int classId) {
+        return classId + 1;
+    }
+
+    /**
+     * Executes the checks against every target class, from the root downwards
+     *
+     * @param runCount the number of measured runs per target and check
+     * @param warmupRuns the number of warmup runs per target and check
+     * @param sampleCount the number of objects in the workload
+     * @param seed the seed of the workload
+     * @return the latencies of the checks, indexed by target class id and by operation
+     * @throws ClassNotFoundException if a class of the chain cannot be loaded
+     */
+    public List<Map<String, LatencyHistogram>> execute(int runCount, int warmupRuns, int sampleCount, long seed)
+            throws ClassNotFoundException {
+        FactoryCache factoryCache = this.classHierarchy.populateFactoryCache();
+        A0[] objects = this.classHierarchy.instantiateObjects(this.classHierarchy.generateStrategy(sampleCount,
+                SamplingStrategy.K_MORPHIC, seed), factoryCache);
+        String[] classNames = this.classHierarchy.getClassNames();
+        List<Map<String, LatencyHistogram>> results = new ArrayList<>();
+
+        for (int classId = 0; classId <= classNames.length - LEAF_TYPES; ++classId) {
+            TypeCheckTimer timer = new TypeCheckTimer(GeneratedClassLoader.loadTypeCheck(this.classLoader,
+                    PACKAGE_PATH + "." + classNames[classId]), false);
+            timer.execute(objects, objects, runCount, warmupRuns);
+            this.sink += timer.getSink();
+
+            Map<String, LatencyHistogram> targetResults = new LinkedHashMap<>();
+            targetResults.put("checkcast", timer.getCheckCastTimes());
+            targetResults.put("instanceof", timer.getInstanceOfTimes());
+            results.add(targetResults);
+        }
+
+        return results;
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 2) {
+            System.err.println("Usage: DepthSweep <chain_depth> <10000|1000000|10000000>");
+            System.exit(0xFF);
+        }
+
+        Triple<Integer, Integer, String> experimentSize = ClassHierarchy.getExperimentSize(args[1]);
+        DepthSweep sweep = new DepthSweep(Integer.parseInt(args[0]));
+        String[] classNames = sweep.classHierarchy.getClassNames();
+        long seed = Long.getLong("strategy.seed", new Random().nextLong());
+
+        List<Map<String, LatencyHistogram>> results = sweep.execute(experimentSize.getSecond(),
+                experimentSize.getSecond() / 10, experimentSize.getFirst(), seed);
+
+        System.out.println("DEPTH_SWEEP " + experimentSize.toString() + " Seed " + seed);
+        System.out.println("\"Target Class\",\"Super Depth\",\"Primary Supertype\",\"Check\"," +
+                ClassHierarchy.LATENCY_CSV_HEADER + ",\"Time per Check [ns]\"");
+
+        for (int classId = 0; classId < results.size(); ++classId)
+            for (Map.Entry<String, LatencyHistogram> entry : results.get(classId).entrySet())
+                System.out.println("\"" + classNames[classId] + "\"," + getSuperDepth(classId) + "," +
+                        (getSuperDepth(classId) < PRIMARY_SUPER_LIMIT) + ",\"" + entry.getKey() + "\"," +
+                        ClassHierarchy.toLatencyCsv(entry.getValue()) + "," +
+                        entry.getValue().getMean() / experimentSize.getFirst());
+    }
+}
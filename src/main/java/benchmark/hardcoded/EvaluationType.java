@@ -1,17 +1,117 @@
 package benchmark.hardcoded;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 enum EvaluationType {
-    ALL,
-    ADD_GENERIC_TL,
-    ADD_GENERIC_U,
-    ADD_GENERIC_L,
-    ADD_HARDCODED_TL,
-    ADD_HARDCODED_U,
-    ADD_HARDCODED_L,
-    GET_GENERIC_TL,
-    GET_GENERIC_U,
-    GET_GENERIC_L,
-    GET_HARDCODED_TL,
-    GET_HARDCODED_U,
-    GET_HARDCODED_L
-}
\ No newline at end of file
+    ALL(false, null, null),
+    ADD_GENERIC_TL(true, Operation.ADD, SamplingStrategy.SAME_TOP_LVL),
+    ADD_GENERIC_U(true, Operation.ADD, SamplingStrategy.UNIFORM),
+    ADD_GENERIC_L(true, Operation.ADD, SamplingStrategy.SAME_LAST_LEAF),
+    ADD_GENERIC_ZIPF(true, Operation.ADD, SamplingStrategy.ZIPF),
+    ADD_GENERIC_DEPTH(true, Operation.ADD, SamplingStrategy.DEPTH_STRATIFIED),
+    ADD_GENERIC_KMORPHIC(true, Operation.ADD, SamplingStrategy.K_MORPHIC),
+    ADD_HARDCODED_TL(false, Operation.ADD, SamplingStrategy.SAME_TOP_LVL),
+    ADD_HARDCODED_U(false, Operation.ADD, SamplingStrategy.UNIFORM),
+    ADD_HARDCODED_L(false, Operation.ADD, SamplingStrategy.SAME_LAST_LEAF),
+    ADD_HARDCODED_ZIPF(false, Operation.ADD, SamplingStrategy.ZIPF),
+    ADD_HARDCODED_DEPTH(false, Operation.ADD, SamplingStrategy.DEPTH_STRATIFIED),
+    ADD_HARDCODED_KMORPHIC(false, Operation.ADD, SamplingStrategy.K_MORPHIC),
+    GET_GENERIC_TL(true, Operation.GET, SamplingStrategy.SAME_TOP_LVL),
+    GET_GENERIC_U(true, Operation.GET, SamplingStrategy.UNIFORM),
+    GET_GENERIC_L(true, Operation.GET, SamplingStrategy.SAME_LAST_LEAF),
+    GET_GENERIC_ZIPF(true, Operation.GET, SamplingStrategy.ZIPF),
+    GET_GENERIC_DEPTH(true, Operation.GET, SamplingStrategy.DEPTH_STRATIFIED),
+    GET_GENERIC_KMORPHIC(true, Operation.GET, SamplingStrategy.K_MORPHIC),
+    GET_HARDCODED_TL(false, Operation.GET, SamplingStrategy.SAME_TOP_LVL),
+    GET_HARDCODED_U(false, Operation.GET, SamplingStrategy.UNIFORM),
+    GET_HARDCODED_L(false, Operation.GET, SamplingStrategy.SAME_LAST_LEAF),
+    GET_HARDCODED_ZIPF(false, Operation.GET, SamplingStrategy.ZIPF),
+    GET_HARDCODED_DEPTH(false, Operation.GET, SamplingStrategy.DEPTH_STRATIFIED),
+    GET_HARDCODED_KMORPHIC(false, Operation.GET, SamplingStrategy.K_MORPHIC),
+    CALL_GENERIC_TL(true, Operation.CALL, SamplingStrategy.SAME_TOP_LVL),
+    CALL_GENERIC_U(true, Operation.CALL, SamplingStrategy.UNIFORM),
+    CALL_GENERIC_L(true, Operation.CALL, SamplingStrategy.SAME_LAST_LEAF),
+    CALL_GENERIC_ZIPF(true, Operation.CALL, SamplingStrategy.ZIPF),
+    CALL_GENERIC_DEPTH(true, Operation.CALL, SamplingStrategy.DEPTH_STRATIFIED),
+    CALL_GENERIC_KMORPHIC(true, Operation.CALL, SamplingStrategy.K_MORPHIC),
+    CALL_HARDCODED_TL(false, Operation.CALL, SamplingStrategy.SAME_TOP_LVL),
+    CALL_HARDCODED_U(false, Operation.CALL, SamplingStrategy.UNIFORM),
+    CALL_HARDCODED_L(false, Operation.CALL, SamplingStrategy.SAME_LAST_LEAF),
+    CALL_HARDCODED_ZIPF(false, Operation.CALL, SamplingStrategy.ZIPF),
+    CALL_HARDCODED_DEPTH(false, Operation.CALL, SamplingStrategy.DEPTH_STRATIFIED),
+    CALL_HARDCODED_KMORPHIC(false, Operation.CALL, SamplingStrategy.K_MORPHIC),
+    CALL_SWEEP(false, null, null);
+
+    /* Whether the experiment uses ArrayListT<A0>, as opposed to ArrayListA0 */
+    private final boolean generic;
+    /* What the experiment does with the list after creating it */
+    private final Operation operation;
+    private final SamplingStrategy samplingStrategy;
+
+    EvaluationType(boolean generic, Operation operation, SamplingStrategy samplingStrategy) {
+        this.generic = generic;
+        this.operation = operation;
+        this.samplingStrategy = samplingStrategy;
+    }
+
+    public boolean isGeneric() {
+        return this.generic;
+    }
+
+    public Operation getOperation() {
+        return this.operation;
+    }
+
+    /**
+     * Checks if the experiment traverses the list after creating it
+     *
+     * @return true for the GET and CALL experiments
+     */
+    public boolean isRetrieval() {
+        return this.operation == Operation.GET || this.operation == Operation.CALL;
+    }
+
+    public SamplingStrategy getSamplingStrategy() {
+        return this.samplingStrategy;
+    }
+
+    /**
+     * Get the name under which the list creation of this experiment is reported
+     *
+     * @return the name of the creation result
+     */
+    public String getCreationName() {
+        return (this.generic ? "Generic List, " : "Custom List, ") + this.samplingStrategy.getDisplayName() +
+                ", Creation";
+    }
+
+    /**
+     * Get the name under which the list traversal of this experiment is reported
+     *
+     * @return the name of the retrieval result
+     */
+    public String getRetrievalName() {
+        return (this.generic ? "Generic List, " : "Custom List, ") + this.samplingStrategy.getDisplayName() +
+                (this.operation == Operation.CALL ? ", Virtual Call" : ", Retrieval");
+    }
+
+    /**
+     * Get the individual experiments this evaluation type consists of. ALL stands for the retrieval experiments
+     * (which include the creation) over the top level, uniform and leaf workloads. CALL_SWEEP stands for the
+     * k-morphic virtual call experiments, which are repeated for every number of receiver types.
+     *
+     * @return the list of experiments
+     */
+    public List<EvaluationType> getExperiments() {
+        if (this == CALL_SWEEP)
+            return new ArrayList<>(Arrays.asList(CALL_GENERIC_KMORPHIC, CALL_HARDCODED_KMORPHIC));
+
+        if (this != ALL)
+            return new ArrayList<>(Arrays.asList(this));
+
+        return new ArrayList<>(Arrays.asList(GET_GENERIC_TL, GET_GENERIC_L, GET_GENERIC_U, GET_HARDCODED_TL,
+                GET_HARDCODED_L, GET_HARDCODED_U));
+    }
+}
@@ -0,0 +1,253 @@
+package benchmark.hardcoded;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs every experiment in a fresh JVM for every configuration of a matrix of JVM flags, and collects the results
+ * of all of them into a single CSV table. The JVM, the class path and the benchmark system properties (e.g.
+ * allocation.order or warmup.cov) of the runner are passed on to the forked JVMs.
+ *
+ * The flag matrix is the cross product of the following system properties, each a comma separated list:
+ *
+ * <ul>
+ *     <li>runner.gcs: the garbage collectors (default G1,PARALLEL,SERIAL,EPSILON)</li>
+ *     <li>runner.compressed.oops: whether compressed oops are used (default true,false)</li>
+ *     <li>runner.tiered.stop.level: the values of -XX:TieredStopAtLevel (default 4)</li>
+ *     <li>runner.always.pre.touch: whether the heap is pre-touched (default false)</li>
+ *     <li>runner.heap: the values of both -Xms and -Xmx, or an empty value for the JVM default (default empty)</li>
+ * </ul>
+ *
+ * If runner.print.compilation is set, the forked JVMs also run with -XX:+PrintCompilation, and the table gets the
+ * columns of the compilations and deoptimizations of the benchmark methods during the warmup and measured runs (see
+ * {@link CompilationLog}). The experiments of a JVM share their warmup and measured runs, hence the events cannot be
+ * told apart by experiment: they are reported once per JVM, in an additional row named JVM_TOTAL_ROW, whose latency
+ * columns are empty, while the counter columns of the experiment rows are empty.
+ */
+public class ExperimentRunner {
+    /* The name of the row which holds the compilation counters of a JVM */
+    static final String JVM_TOTAL_ROW = "All Experiments (JVM Total)";
+
+    /**
+     * One point of the flag matrix.
+     */
+    static class JvmConfiguration {
+        private final GarbageCollector garbageCollector;
+        private final boolean compressedOops;
+        private final int tieredStopLevel;
+        private final boolean alwaysPreTouch;
+        private final String heapSize;
+
+        JvmConfiguration(GarbageCollector garbageCollector, boolean compressedOops, int tieredStopLevel,
+                         boolean alwaysPreTouch, String heapSize) {
+            this.garbageCollector = garbageCollector;
+            this.compressedOops = compressedOops;
+            this.tieredStopLevel = tieredStopLevel;
+            this.alwaysPreTouch = alwaysPreTouch;
+            this.heapSize = heapSize;
+        }
+
+        /**
+         * Get the JVM flags of the configuration
+         *
+         * @return the flags, in command line order
+         */
+        public List<String> getFlags() {
+            List<String> flags = new ArrayList<>(this.garbageCollector.getFlags());
+
+            flags.add(this.compressedOops ? "-XX:+UseCompressedOops" : "-XX:-UseCompressedOops");
+            flags.add("-XX:TieredStopAtLevel=" + this.tieredStopLevel);
+            flags.add(this.alwaysPreTouch ? "-XX:+AlwaysPreTouch" : "-XX:-AlwaysPreTouch");
+
+            if (!this.heapSize.isEmpty()) {
+                flags.add("-Xms" + this.heapSize);
+                flags.add("-Xmx" + this.heapSize);
+            }
+
+            return flags;
+        }
+
+        /**
+         * Get the CSV columns which describe the configuration, matching CONFIGURATION_CSV_HEADER
+         *
+         * @return the columns of the configuration
+         */
+        public String toCsv() {
+            return "\"" + this.garbageCollector.getDisplayName() + "\"," + this.compressedOops + "," +
+                    this.tieredStopLevel + "," + this.alwaysPreTouch + ",\"" +
+                    (this.heapSize.isEmpty() ? "Default" : this.heapSize) + "\"";
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" ", getFlags());
+        }
+    }
+
+    /* The columns of a JvmConfiguration */
+    static final String CONFIGURATION_CSV_HEADER = "\"GC\",\"Compressed Oops\",\"Tiered Stop Level\"," +
+            "\"Always Pre-Touch\",\"Heap\"";
+
+    /* The prefixes of the system properties which are passed on to the forked JVMs */
+    private static final String[] FORWARDED_PROPERTIES = {"zipf.", "depth.", "kmorphic.", "sweep.", "allocation.",
+            "histogram.", "phase.", "warmup.", "experiment.", "registry.", "strategy."};
+
+    private final String javaPath;
+    private final String classPath;
+    private final List<String> forwardedProperties;
+    private final boolean printCompilation;
+
+    public ExperimentRunner() {
+        this.javaPath = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        this.classPath = System.getProperty("java.class.path");
+        this.forwardedProperties = new ArrayList<>();
+        this.printCompilation = Boolean.getBoolean("runner.print.compilation");
+
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments())
+            for (String prefix : FORWARDED_PROPERTIES)
+                if (argument.startsWith("-D" + prefix))
+                    this.forwardedProperties.add(argument);
+    }
+
+    private static String[] split(String value) {
+        return value.trim().isEmpty() ? new String[0] : value.trim().split("\\s*,\\s*");
+    }
+
+    /**
+     * Builds the flag matrix out of the runner.* system properties
+     *
+     * @return the configurations of the matrix
+     */
+    static List<JvmConfiguration> getConfigurations() {
+        List<JvmConfiguration> configurations = new ArrayList<>();
+        String[] heapSizes = split(System.getProperty("runner.heap", ""));
+
+        if (heapSizes.length == 0)
+            heapSizes = new String[]{""};
+
+        for (String gc : split(System.getProperty("runner.gcs", "G1,PARALLEL,SERIAL,EPSILON")))
+            for (String compressedOops : split(System.getProperty("runner.compressed.oops", "true,false")))
+                for (String tieredStopLevel : split(System.getProperty("runner.tiered.stop.level", "4")))
+                    for (String alwaysPreTouch : split(System.getProperty("runner.always.pre.touch", "false")))
+                        for (String heapSize : heapSizes)
+                            configurations.add(new JvmConfiguration(GarbageCollector.valueOf(gc.toUpperCase()),
+                                    Boolean.parseBoolean(compressedOops), Integer.parseInt(tieredStopLevel),
+                                    Boolean.parseBoolean(alwaysPreTouch), heapSize));
+
+        return configurations;
+    }
+
+    public boolean isPrintCompilation() {
+        return this.printCompilation;
+    }
+
+    /**
+     * Runs an experiment in a forked JVM
+     *
+     * @param configuration the flags of the JVM
+     * @param evaluationType the experiment
+     * @param experimentSize the size of the experiment
+     * @param compilationLog the log which parses the compilation output of the JVM, or null if it is not printed
+     * @return the CSV lines printed by the experiment, starting with the header
+     * @throws IOException if the JVM cannot be started, or if it fails
+     * @throws InterruptedException
+     */
+    public List<String> runExperiment(JvmConfiguration configuration, EvaluationType evaluationType,
+                                      String experimentSize, CompilationLog compilationLog)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(this.javaPath);
+        command.addAll(configuration.getFlags());
+        command.addAll(this.forwardedProperties);
+
+        if (compilationLog != null)
+            command.addAll(Arrays.asList("-XX:+PrintCompilation", "-Djit.markers=true"));
+
+        command.addAll(Arrays.asList("-cp", this.classPath, ClassHierarchy.class.getName(), evaluationType.name(),
+                experimentSize));
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        List<String> rows = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+
+            // The CSV lines are the ones starting with a quoted column; the others are status or compilation lines
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("\""))
+                    rows.add(line);
+                else if (compilationLog != null)
+                    compilationLog.parse(line);
+            }
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0)
+            throw new IOException("The JVM exited with code " + exitCode + ": " + String.join(" ", command));
+
+        return rows;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: ExperimentRunner <experiment_type>[,<experiment_type>...] " +
+                    "<10000|1000000|10000000> [<output_csv>]");
+            System.exit(0xFF);
+        }
+
+        List<EvaluationType> evaluationTypes = new ArrayList<>();
+        for (String experimentName : split(args[0]))
+            evaluationTypes.add(ClassHierarchy.findExperiment(experimentName));
+
+        // Validate the size before forking anything
+        ClassHierarchy.getExperimentSize(args[1]);
+
+        ExperimentRunner runner = new ExperimentRunner();
+        List<JvmConfiguration> configurations = getConfigurations();
+
+        try (PrintStream out = args.length == 3 ? new PrintStream(new FileOutputStream(args[2]), true, "UTF-8")
+                : new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8")) {
+            boolean header = true;
+
+            for (EvaluationType evaluationType : evaluationTypes)
+                for (JvmConfiguration configuration : configurations) {
+                    System.err.println("Running " + evaluationType + " with " + configuration);
+
+                    try {
+                        CompilationLog compilationLog = runner.isPrintCompilation() ? new CompilationLog() : null;
+                        List<String> lines = runner.runExperiment(configuration, evaluationType, args[1],
+                                compilationLog);
+
+                        if (header && !lines.isEmpty()) {
+                            out.println("\"Experiment Type\"," + CONFIGURATION_CSV_HEADER + "," + lines.get(0) +
+                                    (compilationLog != null ? "," + CompilationLog.CSV_HEADER : ""));
+                            header = false;
+                        }
+
+                        String prefix = "\"" + evaluationType + "\"," + configuration.toCsv() + ",";
+
+                        for (String row : lines.subList(Math.min(1, lines.size()), lines.size()))
+                            out.println(prefix + row + (compilationLog != null ? "," + CompilationLog.EMPTY_CSV :
+                                    ""));
+
+                        // The latency columns of the total row are empty; there is one per header column but the name
+                        if (compilationLog != null && !lines.isEmpty()) {
+                            StringBuilder emptyColumns = new StringBuilder();
+                            for (int i = 1; i < lines.get(0).split(",").length; ++i)
+                                emptyColumns.append(',');
+
+                            out.println(prefix + "\"" + JVM_TOTAL_ROW + "\"" + emptyColumns + "," +
+                                    compilationLog.toCsv());
+                        }
+                    } catch (IOException e) {
+                        System.err.println(e.getMessage());
+                    }
+                }
+        }
+    }
+}
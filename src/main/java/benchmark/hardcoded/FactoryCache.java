@@ -0,0 +1,125 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.StrategyView;
+import generated.classes.A0;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Holds a precompiled factory for every class of the hierarchy, indexed by class id. The factories are
+ * {@link Supplier}s spun by the {@link LambdaMetafactory} around the no-arg constructors, hence instantiating a class
+ * costs the same as a plain {@code new}, without any reflection or name lookup.
+ */
+public class FactoryCache {
+    /* The number of objects instantiated by a single task in CHUNKED allocation order */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private final Supplier<A0>[] factories;
+
+    /**
+     * Builds the factories of all the classes in the hierarchy
+     *
+     * @param classRegistry the registry of the classes
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public FactoryCache(ClassRegistry classRegistry) {
+        this.factories = (Supplier<A0>[]) new Supplier[classRegistry.getClassCount()];
+
+        for (int i = 0; i < this.factories.length; ++i)
+            this.factories[i] = makeFactory(classRegistry.getRegisteredClass(i));
+    }
+
+    /**
+     * Checks if a class resolves to itself by name from the loader of this class
+     *
+     * @param clazz the class
+     * @return true if the loader of this class loads the same class under its name
+     */
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, FactoryCache.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Spins a Supplier which invokes the no-arg constructor of a class. The spun Supplier refers to the class by
+     * name from the loader of this class, hence classes which that loader cannot see (e.g. those of a
+     * GeneratedClassLoader) get a Supplier which invokes the constructor through its method handle instead. Classes of
+     * a parent loader, such as the hierarchy seen from an IsolatingClassLoader, are visible and get a spun Supplier.
+     *
+     * @param clazz the class to be instantiated
+     * @return the factory of the class
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<A0> makeFactory(Class<?> clazz) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+
+            if (!isVisible(clazz)) {
+                MethodHandle typedConstructor = constructor.asType(MethodType.methodType(A0.class));
+
+                return () -> {
+                    try {
+                        return (A0) typedConstructor.invokeExact();
+                    } catch (Throwable e) {
+                        throw new IllegalStateException("Could not instantiate " + clazz.getName(), e);
+                    }
+                };
+            }
+
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), constructor, MethodType.methodType(clazz));
+
+            return (Supplier<A0>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a factory for " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * Instantiate a class
+     *
+     * @param classId the id of the class
+     * @return a new instance of the class
+     */
+    public A0 newInstance(int classId) {
+        return this.factories[classId].get();
+    }
+
+    /**
+     * Instantiate the classes of a strategy
+     *
+     * @param strategy the strategy which defines the classes to instantiate
+     * @param allocationOrder the order in which the objects are allocated
+     * @return the instantiated objects, in strategy order
+     */
+    public A0[] instantiate(StrategyView strategy, AllocationOrder allocationOrder) {
+        A0[] instantiatedObjects = new A0[strategy.size()];
+
+        if (allocationOrder == AllocationOrder.SEQUENTIAL) {
+            instantiate(strategy, instantiatedObjects, 0, instantiatedObjects.length);
+        } else {
+            int chunkCount = (int) (((long) instantiatedObjects.length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+            IntStream.range(0, chunkCount).parallel().forEach(chunkIndex -> instantiate(strategy,
+                    instantiatedObjects, chunkIndex * CHUNK_SIZE,
+                    (int) Math.min((long) (chunkIndex + 1) * CHUNK_SIZE, instantiatedObjects.length)));
+        }
+
+        return instantiatedObjects;
+    }
+
+    private void instantiate(StrategyView strategy, A0[] instantiatedObjects, int from, int to) {
+        for (int i = from; i < to; ++i)
+            instantiatedObjects[i] = this.factories[strategy.getClassId(i)].get();
+    }
+}
@@ -0,0 +1,194 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.Triple;
+import generated.classes.A0;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Measures what declaring the leaves of a hierarchy final buys, through paired runs over the same hierarchy shape:
+ * once without final classes, and once with a fraction of the leaves (the generator.final.leaves system property,
+ * 1 by default) declared final. Both variants are generated from the same seed in memory, hence they only differ by
+ * the final modifiers, and both variants run on the same workloads.
+ *
+ * Each variant runs a list experiment of ClassHierarchy, whose virtual calls go through retrieved elements, and the
+ * type checks against some of the final leaves: instanceof over a workload drawn uniformly from all leaves, and
+ * checkcast over the workload elements of the checked leaf, followed by a call to typeTag() on the leaf type. A
+ * final class is checked with a single comparison of the klass pointer, and its methods are bound statically, while
+ * a leaf which is not final relies on class hierarchy analysis (CHA), which registers a dependency that is
+ * invalidated when a subclass is loaded.
+ *
+ * Every variant runs in its own IsolatingClassLoader, such that the benchmark loops do not share type profiles
+ * between the variants.
+ */
+public class FinalLeafBenchmark {
+    /* The number of final leaves the type checks are done against */
+    private static final int LEAF_TARGETS = 4;
+
+    private static final String PACKAGE_PATH = "generated.classes";
+    private static final String BASE_CLASS_NAME = "A";
+
+    private static ClassGenerator makeGenerator(int maxChildren, int maxDepth, long seed, double finalLeafFraction)
+            throws IOException {
+        ClassGenerator generator = new ClassGenerator(PACKAGE_PATH, maxChildren, maxDepth, BASE_CLASS_NAME, null);
+        generator.setSeed(seed);
+        generator.setFinalLeafFraction(finalLeafFraction);
+        generator.setRenderInMemory(true);
+        generator.generateClasses();
+
+        return generator;
+    }
+
+    /**
+     * Executes the type checks against a set of leaves
+     *
+     * @param classHierarchy the hierarchy of the variant
+     * @param classLoader the loader of the variant's classes and kernels
+     * @param leafTargets the leaves to be checked against
+     * @param runCount the number of measured runs
+     * @param warmupRuns the number of warmup runs
+     * @param sampleCount the number of objects in the workload
+     * @param seed the seed of the workload, shared by the variants such that they check the same objects
+     * @param results the map the latencies are added to
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
+     */
+    private static void executeTypeChecks(ClassHierarchy classHierarchy, ClassLoader classLoader,
+                                          String[] leafTargets, int runCount, int warmupRuns, int sampleCount,
+                                          long seed, Map<String, LatencyHistogram> results)
+            throws ClassNotFoundException {
+        // The workload is drawn uniformly from the leaves, i.e. from the deepest level
+        double[] depthShares = new double[classHierarchy.populateClassRegistry().getLevelCount()];
+        depthShares[depthShares.length - 1] = 1.0;
+
+        SamplingParameters samplingParameters = new SamplingParameters();
+        samplingParameters.setDepthShares(depthShares);
+        classHierarchy.setSamplingParameters(samplingParameters);
+
+        A0[] objects = classHierarchy.instantiateObjects(classHierarchy.generateStrategy(sampleCount,
+                SamplingStrategy.DEPTH_STRATIFIED, seed), classHierarchy.populateFactoryCache());
+        long sink = 0;
+
+        for (String leaf : leafTargets) {
+            Class<?> leafClass = Class.forName(PACKAGE_PATH + "." + leaf, false, classLoader);
+            Object[] leafObjects = Arrays.stream(objects).filter(leafClass::isInstance).toArray();
+
+            TypeCheckTimer timer = new TypeCheckTimer(GeneratedClassLoader.loadTypeCheck(classLoader,
+                    PACKAGE_PATH + "." + leaf), true);
+            timer.execute(leafObjects, objects, runCount, warmupRuns);
+            sink += timer.getSink();
+
+            results.put("Leaf " + leaf + ", checkcast and Call", timer.getCheckCastTimes());
+            results.put("Leaf " + leaf + ", instanceof", timer.getInstanceOfTimes());
+        }
+
+        if (sink == Long.MIN_VALUE)
+            System.out.println(sink);
+    }
+
+    /**
+     * Generates and executes one variant. This is the entry point of the isolated variants, hence all its parameters
+     * and its result are of types shared by all class loaders.
+     *
+     * @param experimentName the name of the list experiment
+     * @param experimentSize the size of the experiments
+     * @param maxChildren the maximal number of direct subclasses of a class
+     * @param maxDepth the maximal depth of the hierarchy
+     * @param seed the seed of the hierarchy and of the workload of the type checks
+     * @param finalLeafFraction the fraction of the leaves which are final
+     * @param leafTargets the comma separated leaves the type checks are done against
+     * @return the latencies of the variant, indexed by experiment name
+     * @throws IOException if the generator templates cannot be read
+     * @throws ClassNotFoundException if a class of the hierarchy cannot be loaded
+     */
+    public static HashMap<String, LatencyHistogram> executeVariant(String experimentName, String experimentSize,
+                                                                   int maxChildren, int maxDepth, long seed,
+                                                                   double finalLeafFraction, String leafTargets)
+            throws IOException, ClassNotFoundException {
+        EvaluationType evaluationType = ClassHierarchy.findExperiment(experimentName);
+        Triple<Integer, Integer, String> size = ClassHierarchy.getExperimentSize(experimentSize);
+
+        ClassGenerator generator = makeGenerator(maxChildren, maxDepth, seed, finalLeafFraction);
+        generator.generateTypeChecks();
+
+        GeneratedClassLoader classLoader = new InMemoryCompiler().compile(generator.getRenderedClasses(),
+                FinalLeafBenchmark.class.getClassLoader());
+        ClassHierarchy classHierarchy = new ClassHierarchy(generator.getClassHierarchy(), PACKAGE_PATH);
+        classHierarchy.setClassLoader(classLoader);
+        classHierarchy.setStrategySeed(seed);
+
+        int runCount = size.getSecond();
+        int warmupRuns = size.getSecond() / 10;
+
+        HashMap<String, LatencyHistogram> results = classHierarchy.exectueBenchmarks(runCount, warmupRuns,
+                evaluationType, size.getFirst(), null);
+        executeTypeChecks(classHierarchy, classLoader, leafTargets.split(","), runCount, warmupRuns,
+                size.getFirst(), seed, results);
+
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashMap<String, LatencyHistogram> executeIsolated(Object... arguments) throws IOException,
+            ClassNotFoundException {
+        try (IsolatingClassLoader classLoader = new IsolatingClassLoader(FinalLeafBenchmark.class.getClassLoader())) {
+            Method entryPoint = classLoader.loadClass(FinalLeafBenchmark.class.getName()).getMethod("executeVariant",
+                    String.class, String.class, int.class, int.class, long.class, double.class, String.class);
+
+            return (HashMap<String, LatencyHistogram>) entryPoint.invoke(null, arguments);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Could not call the isolated variant", e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof ClassNotFoundException)
+                throw (ClassNotFoundException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+
+            throw new IllegalStateException("The isolated variant has failed", cause);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 4) {
+            System.err.println("Usage: FinalLeafBenchmark <experiment_type> <10000|1000000|10000000> " +
+                    "<max_children> <max_depth>");
+            System.exit(0xFF);
+        }
+
+        int maxChildren = Integer.parseInt(args[2]);
+        int maxDepth = Integer.parseInt(args[3]);
+        double finalLeafFraction = Double.parseDouble(System.getProperty("generator.final.leaves", "1"));
+        long seed = Long.getLong("generator.seed", new Random().nextLong());
+
+        // The same seed marks the same leaves final, hence the targets are known before the variants are generated
+        List<String> finalClassNames = makeGenerator(maxChildren, maxDepth, seed, finalLeafFraction)
+                .getFinalClassNames();
+        if (finalClassNames.isEmpty())
+            throw new IllegalStateException("No leaf was declared final; increase generator.final.leaves");
+
+        String leafTargets = String.join(",", finalClassNames.subList(0, Math.min(LEAF_TARGETS,
+                finalClassNames.size())));
+
+        System.out.println(ClassHierarchy.findExperiment(args[0]) + " " +
+                ClassHierarchy.getExperimentSize(args[1]).toString() + " Seed " + seed);
+        System.out.println("\"Final Leaves\",\"Experiment Name\"," + ClassHierarchy.LATENCY_CSV_HEADER);
+
+        for (double fraction : new double[]{0, finalLeafFraction}) {
+            HashMap<String, LatencyHistogram> results = executeIsolated(args[0], args[1], maxChildren, maxDepth,
+                    seed, fraction, leafTargets);
+
+            for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(results).entrySet())
+                System.out.println(fraction + ",\"" + entry.getKey() + "\"," +
+                        ClassHierarchy.toLatencyCsv(entry.getValue()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package benchmark.hardcoded;
+
+import java.util.Arrays;
+import java.util.List;
+
+enum GarbageCollector {
+    G1("G1", "-XX:+UseG1GC"),
+    PARALLEL("Parallel", "-XX:+UseParallelGC"),
+    SERIAL("Serial", "-XX:+UseSerialGC"),
+    /* Never collects; the heap must be large enough to hold all the allocations of the experiment */
+    EPSILON("Epsilon", "-XX:+UnlockExperimentalVMOptions", "-XX:+UseEpsilonGC");
+
+    private final String displayName;
+    private final List<String> flags;
+
+    GarbageCollector(String displayName, String... flags) {
+        this.displayName = displayName;
+        this.flags = Arrays.asList(flags);
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    /**
+     * Get the JVM flags which select this collector
+     *
+     * @return the flags
+     */
+    public List<String> getFlags() {
+        return this.flags;
+    }
+}
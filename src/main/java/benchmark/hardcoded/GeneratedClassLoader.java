@@ -0,0 +1,112 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.TypeCheckKernel;
+
+import java.util.Map;
+
+/**
+ * A class loader which defines classes compiled in memory by an {@link InMemoryCompiler}. The compiled classes are
+ * loaded child first, hence they take precedence over classes of the same name on the class path of the parent (e.g.
+ * the generated.classes hierarchy checked into the project). All other classes, including the root of a hierarchy
+ * compiled against the class path, are delegated to the parent.
+ */
+public class GeneratedClassLoader extends ClassLoader {
+    /* The prefix of the type check kernels, which ClassGenerator generates next to their targets */
+    private static final String TYPE_CHECK_PREFIX = "TypeCheck";
+
+    /* The bytecode of the compiled classes, indexed by binary name; entries are removed once defined */
+    private final Map<String, byte[]> classFiles;
+
+    /* The number of classes compiled by the compiler, which the loader can define */
+    private final int classCount;
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    /**
+     * @param classFiles the bytecode of the compiled classes, indexed by binary name
+     * @param parent the loader of the classes the compiled ones depend on
+     */
+    public GeneratedClassLoader(Map<String, byte[]> classFiles, ClassLoader parent) {
+        super(parent);
+        this.classFiles = classFiles;
+        this.classCount = classFiles.size();
+    }
+
+    public int getClassCount() {
+        return this.classCount;
+    }
+
+    /**
+     * Instantiates a class through its no-arg constructor, e.g. a kernel compiled together with a hierarchy
+     *
+     * @param classLoader the loader of the class
+     * @param className the binary name of the class
+     * @param type the type the instance is used as
+     * @param <T> the type the instance is used as
+     * @return the new instance
+     * @throws IllegalStateException if the class cannot be loaded or instantiated
+     */
+    public static <T> T newInstance(ClassLoader classLoader, String className, Class<T> type) {
+        try {
+            return type.cast(Class.forName(className, true, classLoader).getConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load " + className, e);
+        }
+    }
+
+    /**
+     * Instantiates the type check kernel of a class or interface, which is in the same package as its target
+     *
+     * @param classLoader the loader of the kernel
+     * @param targetName the binary name of the class or interface the kernel checks against
+     * @return the kernel
+     * @throws IllegalStateException if the kernel cannot be loaded or instantiated
+     */
+    public static TypeCheckKernel loadTypeCheck(ClassLoader classLoader, String targetName) {
+        int packageEnd = targetName.lastIndexOf('.') + 1;
+
+        return newInstance(classLoader, targetName.substring(0, packageEnd) + TYPE_CHECK_PREFIX +
+                targetName.substring(packageEnd), TypeCheckKernel.class);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] classFile;
+
+        synchronized (this.classFiles) {
+            classFile = this.classFiles.remove(name);
+        }
+
+        if (classFile == null)
+            throw new ClassNotFoundException(name);
+
+        return defineClass(name, classFile, 0, classFile.length);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+
+            if (clazz == null) {
+                boolean compiled;
+
+                synchronized (this.classFiles) {
+                    compiled = this.classFiles.containsKey(name);
+                }
+
+                if (!compiled)
+                    return super.loadClass(name, resolve);
+
+                clazz = findClass(name);
+            }
+
+            if (resolve)
+                resolveClass(clazz);
+
+            return clazz;
+        }
+    }
+}
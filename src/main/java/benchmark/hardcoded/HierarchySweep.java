@@ -0,0 +1,118 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.Triple;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs an experiment over many hierarchy shapes in a single JVM. Each shape is generated by a ClassGenerator in
+ * in-memory mode, compiled by an {@link InMemoryCompiler}, and loaded by its own {@link GeneratedClassLoader}, hence
+ * neither the sources nor the class_structure.json of the project are touched, and no Maven build is needed between
+ * the shapes. The classes of a shape become unreachable, and can be unloaded, once the shape is done.
+ *
+ * All shapes share the code of the benchmark loops, hence their type profiles accumulate over the sweep. Sweeps
+ * which compare the dispatch of different shapes should use few shapes per JVM, e.g. through ExperimentRunner.
+ */
+public class HierarchySweep {
+    /* The package of the generated classes; the subclasses are compiled against its top level class */
+    private static final String PACKAGE_PATH = "generated.classes";
+    private static final String BASE_CLASS_NAME = "A";
+
+    private final InMemoryCompiler compiler = new InMemoryCompiler();
+
+    /* The seed of the generated workloads, shared by all shapes */
+    private final long strategySeed = Long.getLong("strategy.seed", new Random().nextLong());
+
+    /**
+     * Parses a comma separated list of integers and integer ranges, e.g. 2,4-6
+     *
+     * @param value the list
+     * @return the integers, in list order
+     */
+    static List<Integer> parseValues(String value) {
+        List<Integer> res = new ArrayList<>();
+
+        for (String token : value.split(",")) {
+            String[] bounds = token.trim().split("-");
+
+            for (int i = Integer.parseInt(bounds[0]); i <= Integer.parseInt(bounds[bounds.length - 1]); ++i)
+                res.add(i);
+        }
+
+        return res;
+    }
+
+    /**
+     * Generates, compiles and loads a hierarchy shape, then executes an experiment on it
+     *
+     * @param maxChildren the maximal number of direct subclasses of a class
+     * @param maxDepth the maximal depth of the hierarchy
+     * @param evaluationType the experiment
+     * @param experimentSize the size of the experiment
+     * @return the CSV rows of the shape, one per result
+     * @throws IOException if the generator templates cannot be read
+     * @throws ClassNotFoundException if a generated class cannot be loaded
+     */
+    List<String> execute(int maxChildren, int maxDepth, EvaluationType evaluationType,
+                         Triple<Integer, Integer, String> experimentSize) throws IOException, ClassNotFoundException {
+        long startTime = System.nanoTime();
+        ClassGenerator generator = new ClassGenerator(PACKAGE_PATH, maxChildren, maxDepth, BASE_CLASS_NAME, null);
+        generator.setRenderInMemory(true);
+        generator.generateClasses();
+        long renderTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        GeneratedClassLoader classLoader = this.compiler.compile(generator.getRenderedClasses(),
+                HierarchySweep.class.getClassLoader());
+        long compileTime = System.nanoTime() - startTime;
+
+        ClassHierarchy classHierarchy = new ClassHierarchy(generator.getClassHierarchy(), PACKAGE_PATH);
+        classHierarchy.setClassLoader(classLoader);
+        classHierarchy.setBatchSize(Integer.getInteger("histogram.batch.size", 0));
+        classHierarchy.setStrategySeed(this.strategySeed);
+
+        if (Boolean.parseBoolean(System.getProperty("warmup.adaptive", "true")))
+            classHierarchy.setWarmupController(WarmupController.fromSystemProperties(
+                    Math.max(experimentSize.getSecond(), 100)));
+
+        // The stored uniform strategies belong to the project's hierarchy, hence every workload is generated
+        HashMap<String, LatencyHistogram> results = classHierarchy.exectueBenchmarks(experimentSize.getSecond(),
+                experimentSize.getSecond() / 10, evaluationType, experimentSize.getFirst(), null);
+
+        String shape = maxChildren + "," + maxDepth + "," + classHierarchy.getClassNames().length + "," +
+                renderTime / 1e6 + "," + compileTime / 1e6;
+        List<String> rows = new ArrayList<>();
+
+        for (Map.Entry<String, LatencyHistogram> entry : results.entrySet())
+            rows.add(shape + ",\"" + entry.getKey() + "\"," + ClassHierarchy.toLatencyCsv(entry.getValue()));
+
+        return rows;
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 4) {
+            System.err.println("Usage: HierarchySweep <experiment_type> <10000|1000000|10000000> " +
+                    "<max_children>[,<max_children>...] <max_depth>[,<max_depth>...]");
+            System.exit(0xFF);
+        }
+
+        EvaluationType evaluationType = ClassHierarchy.findExperiment(args[0]);
+        Triple<Integer, Integer, String> experimentSize = ClassHierarchy.getExperimentSize(args[1]);
+        HierarchySweep sweep = new HierarchySweep();
+
+        System.out.println(evaluationType + " " + experimentSize.toString() + " Seed " + sweep.strategySeed);
+        System.out.println("\"Max Children\",\"Max Depth\",\"Classes\",\"Render Time [ms]\"," +
+                "\"Compile Time [ms]\",\"Experiment Name\"," + ClassHierarchy.LATENCY_CSV_HEADER);
+
+        for (int maxChildren : parseValues(args[2]))
+            for (int maxDepth : parseValues(args[3]))
+                for (String row : sweep.execute(maxChildren, maxDepth, evaluationType, experimentSize))
+                    System.out.println(row);
+    }
+}
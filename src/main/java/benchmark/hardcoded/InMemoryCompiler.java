@@ -0,0 +1,111 @@
+package benchmark.hardcoded;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Compiles Java sources held in memory, such as the classes rendered by a ClassGenerator in in-memory mode, without
+ * writing any source or class file. The sources are compiled against the class path of the running JVM, and the
+ * resulting classes are defined by a {@link GeneratedClassLoader}. This requires a JDK, as a JRE has no compiler.
+ */
+public class InMemoryCompiler {
+
+    /**
+     * A source file whose content is a string.
+     */
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String code;
+
+        SourceFile(String binaryName, String code) {
+            super(URI.create("string:///" + binaryName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return this.code;
+        }
+    }
+
+    /**
+     * A class file which is written to a byte array.
+     */
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+
+        ClassFile(String binaryName) {
+            super(URI.create("bytes:///" + binaryName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return this.bytecode;
+        }
+    }
+
+    private final JavaCompiler compiler;
+
+    /**
+     * @throws IllegalStateException if the JVM does not provide a Java compiler
+     */
+    public InMemoryCompiler() {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (this.compiler == null)
+            throw new IllegalStateException("No Java compiler is available; the in-memory mode requires a JDK");
+    }
+
+    /**
+     * Compiles a set of sources and creates the loader of the compiled classes
+     *
+     * @param sources the sources, indexed by the binary name of their top level class
+     * @param parent the parent of the loader, which must be able to load every class the sources depend on
+     * @return the loader which defines the compiled classes
+     * @throws IllegalStateException if the sources do not compile
+     */
+    public GeneratedClassLoader compile(Map<String, String> sources, ClassLoader parent) {
+        List<JavaFileObject> compilationUnits = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet())
+            compilationUnits.add(new SourceFile(source.getKey(), source.getValue()));
+
+        Map<String, ClassFile> classFiles = new HashMap<>();
+        Map<String, byte[]> bytecode = new HashMap<>();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        // Closing the forwarding manager closes the standard one, which holds the archives of the class path open
+        try (JavaFileManager fileManager = new ForwardingJavaFileManager<JavaFileManager>(
+                this.compiler.getStandardFileManager(diagnostics, null, null)) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                       FileObject sibling) {
+                ClassFile classFile = new ClassFile(className);
+                classFiles.put(className, classFile);
+
+                return classFile;
+            }
+        }) {
+            // The class path of the JVM is the default class path of the standard file manager
+            boolean success = this.compiler.getTask(null, fileManager, diagnostics, Arrays.asList("-proc:none",
+                    "-g:none", "-nowarn"), null, compilationUnits).call();
+
+            if (!success) {
+                StringBuilder message = new StringBuilder("The generated classes do not compile:");
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+                    message.append(System.lineSeparator()).append(diagnostic);
+
+                throw new IllegalStateException(message.toString());
+            }
+
+            for (Map.Entry<String, ClassFile> classFile : classFiles.entrySet())
+                bytecode.put(classFile.getKey(), classFile.getValue().bytecode.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close the file manager of the compiler", e);
+        }
+
+        return new GeneratedClassLoader(bytecode, parent);
+    }
+}
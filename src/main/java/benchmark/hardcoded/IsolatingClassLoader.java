@@ -0,0 +1,69 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.LatencyHistogram;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A class loader which defines its own copy of the benchmark classes (the lists, the hierarchy driver and the
+ * strategies), while it delegates everything else, most notably the generated classes of the hierarchy, to its
+ * parent. Every copy of a method gets its own type profiles and compiled code, hence experiments which run in
+ * different isolating loaders cannot pollute each other's profiles.
+ *
+ * The classes exchanged between an isolated experiment and its caller are shared with the parent, such that both
+ * sides agree on their types. So are the JFR events, such that each of them is registered only once.
+ */
+public class IsolatingClassLoader extends URLClassLoader {
+    /* The prefix of the classes which are defined by every isolating loader */
+    private static final String ISOLATED_PREFIX = "benchmark.hardcoded.";
+
+    /* The classes exchanged with isolated experiments, which are always loaded by the parent */
+    private static final Set<String> SHARED_CLASSES = new HashSet<>(Arrays.asList(LatencyHistogram.class.getName(),
+            PhaseInstrumentation.class.getName(), PhaseInstrumentation.PhaseStatistics.class.getName(),
+            WarmupController.class.getName(), PhaseEvent.class.getName(), RunEvent.class.getName()));
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    /**
+     * Creates a loader which isolates the benchmark classes found where the classes of the caller are
+     *
+     * @param parent the class loader of the caller
+     */
+    public IsolatingClassLoader(ClassLoader parent) {
+        super(new URL[]{IsolatingClassLoader.class.getProtectionDomain().getCodeSource().getLocation()}, parent);
+    }
+
+    /**
+     * Checks if a class gets its own copy in every isolating loader
+     *
+     * @param name the binary name of the class
+     * @return true if the class is isolated
+     */
+    static boolean isIsolated(String name) {
+        return name.startsWith(ISOLATED_PREFIX) && !SHARED_CLASSES.contains(name);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!isIsolated(name))
+            return super.loadClass(name, resolve);
+
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+
+            if (clazz == null)
+                clazz = findClass(name);
+
+            if (resolve)
+                resolveClass(clazz);
+
+            return clazz;
+        }
+    }
+}
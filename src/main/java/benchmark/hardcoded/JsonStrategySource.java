@@ -0,0 +1,155 @@
+package benchmark.hardcoded;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams a strategy written by {@link ClassHierarchy#writeStrategy} one block at a time. Each block is parsed with a
+ * {@link JsonReader} and converted to class ids, while the following block is already being read on a background
+ * thread. At most two blocks are held in memory at any time, regardless of the size of the strategy.
+ * ClassHierarchy.loadStrategy uses it to load the strategies which are split into JSON blocks.
+ */
+public class JsonStrategySource implements Iterator<int[]>, AutoCloseable {
+    private final ClassRegistry classRegistry;
+    private final String path;
+    private final String baseName;
+    private final int blockCount;
+
+    /* The reads are done on a single background thread, such that they overlap with consuming the current block */
+    private final ExecutorService reader;
+    private Future<int[]> nextBlock;
+    private int nextBlockIndex;
+
+    /**
+     * Creates a source over the blocks of a stored strategy and starts reading the first block.
+     *
+     * @param classRegistry the registry used to convert class names to class ids
+     * @param path the path to the directory where the strategy is saved
+     * @param baseName the base name of the files storing the strategy
+     * @param blockCount the number of files used to store the strategy
+     */
+    public JsonStrategySource(ClassRegistry classRegistry, String path, String baseName, int blockCount) {
+        this.classRegistry = classRegistry;
+        this.path = path;
+        this.baseName = baseName;
+        this.blockCount = blockCount;
+
+        this.reader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "strategy-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        prefetch();
+    }
+
+    public int getBlockCount() {
+        return this.blockCount;
+    }
+
+    /**
+     * Submits the read of the next block, if there is one left.
+     */
+    private void prefetch() {
+        if (this.nextBlockIndex < this.blockCount) {
+            int blockIndex = this.nextBlockIndex++;
+            this.nextBlock = this.reader.submit(() -> readBlock(blockIndex));
+        } else {
+            this.nextBlock = null;
+        }
+    }
+
+    /**
+     * Parses one block of the strategy and converts it to class ids.
+     *
+     * @param blockIndex the index of the block
+     * @return the class ids stored in the block
+     * @throws IOException if the block cannot be read
+     */
+    private int[] readBlock(int blockIndex) throws IOException {
+        String name = this.path + "/" + this.baseName + "_" + blockIndex + ".json";
+        int[] block = new int[ClassHierarchy.BLOCK_SIZE];
+        int size = 0;
+
+        try (JsonReader in = new JsonReader(new BufferedReader(new FileReader(name)))) {
+            in.beginArray();
+
+            while (in.hasNext()) {
+                if (size == block.length)
+                    block = Arrays.copyOf(block, block.length + (block.length >> 1));
+
+                block[size++] = this.classRegistry.getClassId(in.nextString());
+            }
+
+            in.endArray();
+        }
+
+        return size == block.length ? block : Arrays.copyOf(block, size);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.nextBlock != null;
+    }
+
+    /**
+     * Get the next block of class ids. The read of the block after it is started before this method returns.
+     *
+     * @return the class ids of the next block
+     * @throws UncheckedIOException if the block could not be read
+     */
+    @Override
+    public int[] next() {
+        if (this.nextBlock == null)
+            throw new NoSuchElementException();
+
+        try {
+            int[] block = this.nextBlock.get();
+            prefetch();
+            return block;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the strategy", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw new UncheckedIOException((IOException) e.getCause());
+            throw new IllegalStateException("Failed to read the strategy", e.getCause());
+        }
+    }
+
+    /**
+     * Get the remaining blocks as a sequential, ordered stream.
+     *
+     * @return a stream over the remaining blocks
+     */
+    public Stream<int[]> stream() {
+        Spliterator<int[]> spliterator = Spliterators.spliterator(this, this.blockCount - this.nextBlockIndex +
+                (this.nextBlock == null ? 0 : 1), Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (this.nextBlock != null)
+            this.nextBlock.cancel(true);
+
+        this.nextBlock = null;
+        this.reader.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package benchmark.hardcoded;
+
+enum Operation {
+    /* The list is only created */
+    ADD,
+    /* The list is created, then its elements are retrieved */
+    GET,
+    /* The list is created, then a virtual method is invoked on each of its retrieved elements */
+    CALL
+}
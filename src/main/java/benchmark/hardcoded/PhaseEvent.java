@@ -0,0 +1,55 @@
+package benchmark.hardcoded;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event which spans one phase of an experiment. Phase events are only recorded if a flight recording is
+ * running, e.g. through -XX:StartFlightRecording; otherwise, committing them does nothing.
+ */
+@Name("benchmark.Phase")
+@Label("Benchmark Phase")
+@Category("Benchmark")
+@Description("A phase of an experiment, such as class loading, instantiation or list traversal")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    public static final String PARSE_HIERARCHY = "Parse Hierarchy";
+    public static final String LOAD_CLASSES = "Load Classes";
+    public static final String BUILD_FACTORIES = "Build Factories";
+    public static final String LOAD_STRATEGY = "Load Strategy";
+    public static final String GENERATE_STRATEGY = "Generate Strategy";
+    public static final String INSTANTIATE_OBJECTS = "Instantiate Objects";
+    public static final String BUILD_LIST = "Build List";
+    public static final String TRAVERSE_LIST = "Traverse List";
+    public static final String LOAD_PLUGIN = "Load Plugin";
+
+    @Label("Phase")
+    private final String phase;
+
+    @Label("Detail")
+    @Description("The experiment or file the phase works on")
+    private final String detail;
+
+    public PhaseEvent(String phase, String detail) {
+        this.phase = phase;
+        this.detail = detail;
+    }
+
+    /**
+     * Creates a phase event and starts its timing
+     *
+     * @param phase the name of the phase
+     * @param detail the experiment or file the phase works on
+     * @return the started event, which must be committed once the phase is done
+     */
+    public static PhaseEvent start(String phase, String detail) {
+        PhaseEvent event = new PhaseEvent(phase, detail);
+        event.begin();
+
+        return event;
+    }
+}
@@ -0,0 +1,190 @@
+package benchmark.hardcoded;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Records how many bytes the benchmark thread allocates, how many collections the garbage collectors run, and how
+ * much time the JIT compilers spend, during the timed sections of the experiments. The counters are sampled right
+ * before a section is timed and right after it is done, hence the sampling itself is never timed. The bytes
+ * allocated by a sampling pair are measured once, when the instrumentation is created, and subtracted from every
+ * section.
+ */
+public class PhaseInstrumentation {
+
+    /**
+     * The accumulated counters of all the recorded runs of one phase.
+     */
+    public static class PhaseStatistics {
+        private long runCount;
+        private long elementCount;
+        private long allocatedBytes;
+        private long gcCount;
+        private long gcTime;
+        private long compilationTime;
+
+        public long getRunCount() {
+            return this.runCount;
+        }
+
+        public long getAllocatedBytes() {
+            return this.allocatedBytes;
+        }
+
+        /**
+         * Get the number of bytes allocated per processed element
+         *
+         * @return the allocated bytes divided by the number of elements, over all runs
+         */
+        public double getAllocatedBytesPerElement() {
+            return this.elementCount == 0 ? 0 : (double) this.allocatedBytes / this.elementCount;
+        }
+
+        /**
+         * Get the mean number of collections which happened during a run
+         *
+         * @return the number of collections per run
+         */
+        public double getGcCountPerRun() {
+            return this.runCount == 0 ? 0 : (double) this.gcCount / this.runCount;
+        }
+
+        /**
+         * Get the mean time the collectors spent during a run, as reported by the GarbageCollectorMXBeans
+         *
+         * @return the collection time per run in milliseconds
+         */
+        public double getGcTimePerRun() {
+            return this.runCount == 0 ? 0 : (double) this.gcTime / this.runCount;
+        }
+
+        /**
+         * Get the mean time the JIT compilers spent during a run, as reported by the CompilationMXBean. Since the
+         * compilers run in the background, this is the compilation time which overlapped the runs.
+         *
+         * @return the compilation time per run in milliseconds, or 0 if the JVM does not monitor it
+         */
+        public double getCompilationTimePerRun() {
+            return this.runCount == 0 ? 0 : (double) this.compilationTime / this.runCount;
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final List<GarbageCollectorMXBean> gcBeans;
+    private final CompilationMXBean compilationBean;
+    private final HashMap<String, PhaseStatistics> statistics = new HashMap<>();
+
+    /* The bytes allocated by a begin() / end() pair, which are not attributed to the phase */
+    private final long samplingOverhead;
+
+    /* The counters sampled by begin() */
+    private long startAllocatedBytes;
+    private long startGcCount;
+    private long startGcTime;
+    private long startCompilationTime;
+
+    /**
+     * @throws UnsupportedOperationException if the JVM cannot measure the bytes allocated by a thread
+     */
+    public PhaseInstrumentation() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean) ||
+                !((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported())
+            throw new UnsupportedOperationException("This JVM does not support thread allocation measurement");
+
+        this.threadBean = (com.sun.management.ThreadMXBean) threadBean;
+        this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        this.gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+        CompilationMXBean compilationBean = ManagementFactory.getCompilationMXBean();
+        this.compilationBean = compilationBean != null && compilationBean.isCompilationTimeMonitoringSupported() ?
+                compilationBean : null;
+
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; ++i) {
+            begin();
+            overhead = Math.min(overhead, getAllocatedBytes() - this.startAllocatedBytes);
+        }
+        this.samplingOverhead = overhead;
+    }
+
+    private long getAllocatedBytes() {
+        return this.threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long getCompilationTime() {
+        return this.compilationBean == null ? 0 : this.compilationBean.getTotalCompilationTime();
+    }
+
+    /**
+     * Samples the counters before a timed section
+     */
+    public void begin() {
+        long gcCount = 0;
+        long gcTime = 0;
+
+        for (GarbageCollectorMXBean gcBean : this.gcBeans) {
+            gcCount += Math.max(0, gcBean.getCollectionCount());
+            gcTime += Math.max(0, gcBean.getCollectionTime());
+        }
+
+        this.startGcCount = gcCount;
+        this.startGcTime = gcTime;
+        this.startCompilationTime = getCompilationTime();
+        this.startAllocatedBytes = getAllocatedBytes();
+    }
+
+    /**
+     * Samples the counters after a timed section, and adds their difference to the statistics of a phase
+     *
+     * @param phase the name of the phase
+     * @param elementCount the number of elements processed by the section
+     */
+    public void end(String phase, long elementCount) {
+        long allocatedBytes = getAllocatedBytes() - this.startAllocatedBytes - this.samplingOverhead;
+        long compilationTime = getCompilationTime() - this.startCompilationTime;
+        long gcCount = 0;
+        long gcTime = 0;
+
+        for (GarbageCollectorMXBean gcBean : this.gcBeans) {
+            gcCount += Math.max(0, gcBean.getCollectionCount());
+            gcTime += Math.max(0, gcBean.getCollectionTime());
+        }
+
+        PhaseStatistics phaseStatistics = this.statistics.computeIfAbsent(phase, k -> new PhaseStatistics());
+        ++phaseStatistics.runCount;
+        phaseStatistics.elementCount += elementCount;
+        phaseStatistics.allocatedBytes += Math.max(0, allocatedBytes);
+        phaseStatistics.gcCount += gcCount - this.startGcCount;
+        phaseStatistics.gcTime += gcTime - this.startGcTime;
+        phaseStatistics.compilationTime += compilationTime;
+    }
+
+    /**
+     * Get the statistics of a phase
+     *
+     * @param phase the name of the phase
+     * @return the statistics, or null if the phase was never recorded
+     */
+    public PhaseStatistics get(String phase) {
+        return this.statistics.get(phase);
+    }
+
+    /**
+     * Moves the statistics of a phase to a new name, such that later runs of the old phase are recorded separately
+     *
+     * @param phase the current name of the phase
+     * @param newName the new name of the phase
+     */
+    public void rename(String phase, String newName) {
+        PhaseStatistics phaseStatistics = this.statistics.remove(phase);
+
+        if (phaseStatistics != null)
+            this.statistics.put(newName, phaseStatistics);
+    }
+}
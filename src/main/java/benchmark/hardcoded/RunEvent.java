@@ -0,0 +1,49 @@
+package benchmark.hardcoded;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event which spans one run over a group of experiments, be it a warmup or a measured run.
+ */
+@Name("benchmark.Run")
+@Label("Benchmark Run")
+@Category("Benchmark")
+@Description("One warmup or measured run over a group of experiments")
+@StackTrace(false)
+public class RunEvent extends Event {
+    @Label("Experiments")
+    private final String experiments;
+
+    @Label("Run")
+    @Description("The index of the run, counted separately for the warmup and the measured runs")
+    private final int run;
+
+    @Label("Warmup")
+    private final boolean warmup;
+
+    public RunEvent(String experiments, int run, boolean warmup) {
+        this.experiments = experiments;
+        this.run = run;
+        this.warmup = warmup;
+    }
+
+    /**
+     * Creates a run event and starts its timing
+     *
+     * @param experiments the experiments of the run
+     * @param run the index of the run
+     * @param warmup whether this is a warmup run
+     * @return the started event, which must be committed once the run is done
+     */
+    public static RunEvent start(String experiments, int run, boolean warmup) {
+        RunEvent event = new RunEvent(experiments, run, warmup);
+        event.begin();
+
+        return event;
+    }
+}
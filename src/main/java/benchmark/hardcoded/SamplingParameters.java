@@ -0,0 +1,117 @@
+package benchmark.hardcoded;
+
+import java.util.Arrays;
+
+/**
+ * The parameters of the skewed and structured sampling strategies. They can be provided through system properties:
+ *
+ * <ul>
+ *     <li>zipf.exponent: the exponent s of the Zipf distribution (default 1.0)</li>
+ *     <li>depth.shares: comma separated shares of the samples per hierarchy level, starting with the root; they are
+ *     normalized, and an empty value gives every level the same share (default)</li>
+ *     <li>kmorphic.k: the number of distinct classes of the K_MORPHIC strategy (default 2)</li>
+ *     <li>kmorphic.classes: comma separated names of the sampled classes; by default, k classes evenly spread over
+ *     the level order of the hierarchy are used</li>
+ *     <li>kmorphic.weights: comma separated weights of the sampled classes (default: equal weights)</li>
+ *     <li>sweep.types: comma separated numbers of receiver types of the CALL_SWEEP experiment
+ *     (default 1,2,3,4,6,8,16,32,64)</li>
+ * </ul>
+ */
+class SamplingParameters {
+    private double zipfExponent = 1.0;
+    private double[] depthShares = new double[0];
+    private int kMorphicCount = 2;
+    private String[] kMorphicClasses = new String[0];
+    private double[] kMorphicWeights = new double[0];
+    private int[] sweepTypeCounts = {1, 2, 3, 4, 6, 8, 16, 32, 64};
+
+    /**
+     * Read the sampling parameters from the system properties, falling back to the defaults
+     *
+     * @return the sampling parameters
+     */
+    static SamplingParameters fromSystemProperties() {
+        SamplingParameters parameters = new SamplingParameters();
+
+        parameters.zipfExponent = Double.parseDouble(System.getProperty("zipf.exponent", "1.0"));
+        parameters.depthShares = parseDoubles(System.getProperty("depth.shares", ""));
+        parameters.kMorphicClasses = split(System.getProperty("kmorphic.classes", ""));
+        parameters.kMorphicCount = Integer.parseInt(System.getProperty("kmorphic.k",
+                parameters.kMorphicClasses.length > 0 ? Integer.toString(parameters.kMorphicClasses.length) : "2"));
+        parameters.kMorphicWeights = parseDoubles(System.getProperty("kmorphic.weights", ""));
+
+        if (System.getProperty("sweep.types") != null)
+            parameters.sweepTypeCounts = Arrays.stream(split(System.getProperty("sweep.types")))
+                    .mapToInt(Integer::parseInt).toArray();
+
+        return parameters;
+    }
+
+    private static String[] split(String value) {
+        return value.trim().isEmpty() ? new String[0] : value.trim().split("\\s*,\\s*");
+    }
+
+    private static double[] parseDoubles(String value) {
+        return Arrays.stream(split(value)).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    public double getZipfExponent() {
+        return this.zipfExponent;
+    }
+
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+
+    public double[] getDepthShares() {
+        return this.depthShares;
+    }
+
+    public void setDepthShares(double[] depthShares) {
+        this.depthShares = depthShares;
+    }
+
+    public int getKMorphicCount() {
+        return this.kMorphicCount;
+    }
+
+    public void setKMorphicCount(int kMorphicCount) {
+        this.kMorphicCount = kMorphicCount;
+    }
+
+    public String[] getKMorphicClasses() {
+        return this.kMorphicClasses;
+    }
+
+    public void setKMorphicClasses(String[] kMorphicClasses) {
+        this.kMorphicClasses = kMorphicClasses;
+    }
+
+    public double[] getKMorphicWeights() {
+        return this.kMorphicWeights;
+    }
+
+    public void setKMorphicWeights(double[] kMorphicWeights) {
+        this.kMorphicWeights = kMorphicWeights;
+    }
+
+    public int[] getSweepTypeCounts() {
+        return this.sweepTypeCounts;
+    }
+
+    public void setSweepTypeCounts(int[] sweepTypeCounts) {
+        this.sweepTypeCounts = sweepTypeCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingParameters{" +
+                "zipfExponent=" + zipfExponent +
+                ", depthShares=" + Arrays.toString(depthShares) +
+                ", kMorphicCount=" + kMorphicCount +
+                ", kMorphicClasses=" + Arrays.toString(kMorphicClasses) +
+                ", kMorphicWeights=" + Arrays.toString(kMorphicWeights) +
+                ", sweepTypeCounts=" + Arrays.toString(sweepTypeCounts) +
+                '}';
+    }
+}
@@ -1,7 +1,23 @@
 package benchmark.hardcoded;
 
 enum SamplingStrategy {
-    UNIFORM,
-    SAME_TOP_LVL,
-    SAME_LAST_LEAF
-}
\ No newline at end of file
+    UNIFORM("Uniform"),
+    SAME_TOP_LVL("Top Level"),
+    SAME_LAST_LEAF("Leaf"),
+    /* The classes are ranked in level order, and the class of rank r is sampled with a weight of 1 / r^s */
+    ZIPF("Zipf"),
+    /* Each level of the hierarchy gets a fixed share of the samples, which is spread uniformly over its classes */
+    DEPTH_STRATIFIED("Depth Stratified"),
+    /* Exactly k distinct classes are sampled, each with its own weight */
+    K_MORPHIC("K-Morphic");
+
+    private final String displayName;
+
+    SamplingStrategy(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+}
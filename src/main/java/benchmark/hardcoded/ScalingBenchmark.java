@@ -0,0 +1,456 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.ArrayListA0;
+import benchmark.hardcoded.types.ArrayListT;
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.StrategyView;
+import benchmark.hardcoded.types.Triple;
+import benchmark.hardcoded.types.TypeCheckKernel;
+import generated.classes.A0;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Runs experiments over a shared, populated list from an increasing number of threads, and reports how the
+ * aggregate throughput scales with the thread count. The type check and full retrieval experiments have every thread
+ * traverse the whole list, hence perfect scaling keeps the run time constant as threads are added; the sliced
+ * retrieval experiments split the list between the threads, hence perfect scaling divides the run time by the number
+ * of threads.
+ */
+public class ScalingBenchmark {
+
+    /**
+     * The work done by one thread in one run.
+     */
+    interface ThreadKernel {
+        /**
+         * Execute the kernel
+         *
+         * @param threadIndex the index of the thread, between 0 and threadCount - 1
+         * @param threadCount the number of threads executing the kernel concurrently
+         * @return a value derived from the work, which is accumulated such that the work cannot be eliminated
+         */
+        long run(int threadIndex, int threadCount);
+    }
+
+    /**
+     * The timing of an experiment at a given thread count.
+     */
+    static class ScalingResult {
+        private final String name;
+        private final int threadCount;
+        private final long operationsPerRun;
+        private final LatencyHistogram time;
+
+        ScalingResult(String name, int threadCount, long operationsPerRun, LatencyHistogram time) {
+            this.name = name;
+            this.threadCount = threadCount;
+            this.operationsPerRun = operationsPerRun;
+            this.time = time;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getThreadCount() {
+            return this.threadCount;
+        }
+
+        /**
+         * Get the run times in nanoseconds
+         *
+         * @return the histogram of the run times
+         */
+        public LatencyHistogram getTime() {
+            return this.time;
+        }
+
+        /**
+         * Get the aggregate throughput of all threads
+         *
+         * @return the number of operations per second, over all threads
+         */
+        public double getThroughput() {
+            return this.operationsPerRun / (this.time.getMean() / 1e9);
+        }
+    }
+
+    private final ClassHierarchy classHierarchy;
+    private final int[] threadCounts;
+    private final ExecutorService pool;
+
+    /* Accumulates the values returned by the kernels */
+    private long sink;
+
+    /**
+     * @param classHierarchy the hierarchy used to build the workloads
+     * @param maxThreads the largest number of threads; the powers of two below it are used as well
+     */
+    public ScalingBenchmark(ClassHierarchy classHierarchy, int maxThreads) {
+        this.classHierarchy = classHierarchy;
+        this.threadCounts = getThreadCounts(maxThreads);
+        this.pool = Executors.newFixedThreadPool(maxThreads, r -> {
+            Thread thread = new Thread(r, "scaling-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the thread counts of a sweep: 1, 2, 4, ... up to, and including, maxThreads
+     *
+     * @param maxThreads the largest number of threads
+     * @return the thread counts in ascending order
+     */
+    static int[] getThreadCounts(int maxThreads) {
+        ArrayList<Integer> res = new ArrayList<>();
+
+        for (int i = 1; i < maxThreads; i <<= 1)
+            res.add(i);
+        res.add(maxThreads);
+
+        return res.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Runs a kernel on several threads at once and measures the time until all of them are done
+     *
+     * @param threadCount the number of threads
+     * @param kernel the kernel to be executed by each thread
+     * @return the elapsed time in nanoseconds
+     */
+    private long runOnThreads(int threadCount, ThreadKernel kernel) {
+        CountDownLatch ready = new CountDownLatch(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; ++i) {
+            int threadIndex = i;
+            results.add(this.pool.submit(() -> {
+                ready.countDown();
+                start.await();
+                return kernel.run(threadIndex, threadCount);
+            }));
+        }
+
+        try {
+            ready.await();
+
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Future<Long> result : results)
+                this.sink += result.get();
+
+            return System.nanoTime() - startTime;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the workers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker has failed", e.getCause());
+        }
+    }
+
+    /**
+     * Runs a kernel at every thread count of the sweep
+     *
+     * @param name the name of the experiment
+     * @param runCount the number of measured runs per thread count
+     * @param warmupRuns the number of warmup runs per thread count
+     * @param operationsPerRun the number of operations executed by all threads in one run, given the thread count
+     * @param kernel the kernel to be executed by each thread
+     * @return one result per thread count
+     */
+    List<ScalingResult> executeSweep(String name, int runCount, int warmupRuns, IntToLongFunction operationsPerRun,
+                                     ThreadKernel kernel) {
+        List<ScalingResult> results = new ArrayList<>();
+
+        for (int threadCount : this.threadCounts) {
+            LatencyHistogram times = new LatencyHistogram();
+
+            for (int i = 0; i < warmupRuns; ++i)
+                runOnThreads(threadCount, kernel);
+
+            // Run a GC call, to help guarantee that the first experiment will be `clean`
+            System.gc();
+
+            for (int i = 0; i < runCount; ++i)
+                times.record(runOnThreads(threadCount, kernel));
+
+            results.add(new ScalingResult(name + ", " + threadCount + (threadCount == 1 ? " Thread" : " Threads"),
+                    threadCount, operationsPerRun.applyAsLong(threadCount), times));
+        }
+
+        return results;
+    }
+
+    /**
+     * Collects all interfaces a class implements, directly or through its superclasses and superinterfaces
+     *
+     * @param clazz the class
+     * @param interfaces the set the interfaces are added to
+     */
+    private static void collectInterfaces(Class<?> clazz, Set<Class<?>> interfaces) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass())
+            for (Class<?> i : c.getInterfaces())
+                if (interfaces.add(i))
+                    collectInterfaces(i, interfaces);
+    }
+
+    /**
+     * Get the interfaces the type checks are done against, sorted by name. Casts are only done against interfaces
+     * implemented by every class of the strategy, so that they never fail.
+     *
+     * @param classRegistry the registry of the hierarchy
+     * @param strategy the strategy of the workload
+     * @param common whether only the interfaces implemented by all classes should be used
+     * @return the interfaces implemented by all (or any) classes of the strategy
+     * @throws IllegalStateException if there are fewer than two such interfaces
+     */
+    static Class<?>[] getTypeCheckTargets(ClassRegistry classRegistry, StrategyView strategy, boolean common) {
+        boolean[] used = new boolean[classRegistry.getClassCount()];
+        for (int i = 0; i < strategy.size(); ++i)
+            used[strategy.getClassId(i)] = true;
+
+        Set<Class<?>> targets = null;
+
+        for (int classId = 0; classId < used.length; ++classId) {
+            if (!used[classId])
+                continue;
+
+            Set<Class<?>> interfaces = new HashSet<>();
+            collectInterfaces(classRegistry.getRegisteredClass(classId), interfaces);
+
+            if (targets == null)
+                targets = interfaces;
+            else if (common)
+                targets.retainAll(interfaces);
+            else
+                targets.addAll(interfaces);
+        }
+
+        if (targets == null || targets.size() < 2)
+            throw new IllegalStateException("The workload classes implement fewer than two interfaces; regenerate " +
+                    "the hierarchy with ClassGenerator's <emit_interfaces> option, or use a deeper workload");
+
+        Class<?>[] res = targets.toArray(new Class<?>[0]);
+        Arrays.sort(res, Comparator.comparing(Class::getName));
+
+        return res;
+    }
+
+    /**
+     * Loads the type check kernels of the targets, which ClassGenerator generates next to the interfaces. Every
+     * kernel checks with an instanceof or checkcast bytecode against its interface, as a constant.
+     *
+     * @param targets the interfaces checked against
+     * @return the kernel of each target, in the same order
+     * @throws IllegalStateException if a kernel has not been generated
+     */
+    static TypeCheckKernel[] loadTypeChecks(Class<?>[] targets) {
+        TypeCheckKernel[] res = new TypeCheckKernel[targets.length];
+
+        for (int i = 0; i < targets.length; ++i) {
+            try {
+                res[i] = GeneratedClassLoader.loadTypeCheck(targets[i].getClassLoader(), targets[i].getName());
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException("The kernel of " + targets[i].getName() + " is generated by " +
+                        "ClassGenerator's <emit_interfaces> option, and must be compiled with the hierarchy", e);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Every thread traverses the whole list and type checks each element against the targets, in turn, through
+     * their kernels. As all threads check the same classes against alternating interfaces, they all update the same
+     * secondary super caches.
+     *
+     * @param experiment the kind of type check
+     * @param list the shared list
+     * @param kernels the type check kernels of the interfaces checked against
+     * @return the kernel of the experiment
+     */
+    static ThreadKernel makeTypeCheckKernel(ScalingExperiment experiment, ArrayListT<A0> list,
+                                            TypeCheckKernel[] kernels) {
+        if (experiment == ScalingExperiment.INSTANCEOF)
+            return (threadIndex, threadCount) -> {
+                long count = 0;
+                int target = 0;
+
+                for (int j = 0; j < list.size(); ++j) {
+                    if (kernels[target].isInstance(list.get(j)))
+                        ++count;
+                    target = target + 1 == kernels.length ? 0 : target + 1;
+                }
+
+                return count;
+            };
+
+        return (threadIndex, threadCount) -> {
+            long count = 0;
+            int target = 0;
+
+            for (int j = 0; j < list.size(); ++j) {
+                if (kernels[target].cast(list.get(j)) != null)
+                    ++count;
+                target = target + 1 == kernels.length ? 0 : target + 1;
+            }
+
+            return count;
+        };
+    }
+
+    /**
+     * Get the first index of the elements a thread retrieves. In sliced experiments, this is also the end of the
+     * slice of the previous thread.
+     *
+     * @param size the size of the list
+     * @param threadIndex the index of the thread
+     * @param threadCount the number of threads
+     * @return the start of the slice of the thread, or its offset in the list
+     */
+    static int getSliceStart(int size, int threadIndex, int threadCount) {
+        return (int) ((long) size * threadIndex / threadCount);
+    }
+
+    /**
+     * Each thread retrieves the elements of the generic list, either in its own slice, or in the entire list, starting
+     * from its slice and wrapping around, such that the threads do not read the same cache lines in lockstep. The
+     * retrieved elements are cast to A0, hence every retrieval also reads the header of the element.
+     *
+     * @param experiment the retrieval experiment
+     * @param list the shared list
+     * @return the kernel of the experiment
+     */
+    static ThreadKernel makeReadKernel(ScalingExperiment experiment, ArrayListT<A0> list) {
+        return (threadIndex, threadCount) -> {
+            int size = list.size();
+            int from = getSliceStart(size, threadIndex, threadCount);
+            int to = experiment.isSliced() ? getSliceStart(size, threadIndex + 1, threadCount) : size;
+            long count = 0;
+
+            for (int j = from; j < to; ++j) {
+                A0 a = list.get(j);
+                if (a != null)
+                    ++count;
+            }
+
+            if (!experiment.isSliced())
+                for (int j = 0; j < from; ++j) {
+                    A0 a = list.get(j);
+                    if (a != null)
+                        ++count;
+                }
+
+            return count;
+        };
+    }
+
+    /**
+     * The same as {@link #makeReadKernel(ScalingExperiment, ArrayListT)}, but over the hardcoded list, whose
+     * retrievals need no cast
+     *
+     * @param experiment the retrieval experiment
+     * @param list the shared list
+     * @return the kernel of the experiment
+     */
+    static ThreadKernel makeReadKernel(ScalingExperiment experiment, ArrayListA0 list) {
+        return (threadIndex, threadCount) -> {
+            int size = list.size();
+            int from = getSliceStart(size, threadIndex, threadCount);
+            int to = experiment.isSliced() ? getSliceStart(size, threadIndex + 1, threadCount) : size;
+            long count = 0;
+
+            for (int j = from; j < to; ++j) {
+                A0 a = list.get(j);
+                if (a != null)
+                    ++count;
+            }
+
+            if (!experiment.isSliced())
+                for (int j = 0; j < from; ++j) {
+                    A0 a = list.get(j);
+                    if (a != null)
+                        ++count;
+                }
+
+            return count;
+        };
+    }
+
+    /**
+     * Executes a scaling experiment at every thread count
+     *
+     * @param experiment the experiment to be executed
+     * @param runCount the number of measured runs per thread count
+     * @param warmupRuns the number of warmup runs per thread count
+     * @param sampleCount the number of objects in the list
+     * @param strategyType the sampling strategy of the workload
+     * @param seed the seed of the workload
+     * @return one result per thread count
+     * @throws ClassNotFoundException
+     */
+    public List<ScalingResult> execute(ScalingExperiment experiment, int runCount, int warmupRuns, int sampleCount,
+                                       SamplingStrategy strategyType, long seed) throws ClassNotFoundException {
+        ClassRegistry classRegistry = this.classHierarchy.populateClassRegistry();
+        FactoryCache factoryCache = new FactoryCache(classRegistry);
+        StrategyView strategy = this.classHierarchy.generateStrategy(sampleCount, strategyType, seed);
+        A0[] objects = this.classHierarchy.instantiateObjects(strategy, factoryCache);
+        String name = (experiment.isGeneric() ? "Generic List, " : "Custom List, ") + strategyType.getDisplayName() +
+                ", " + experiment.getDisplayName();
+        IntToLongFunction operationsPerRun = experiment.isSliced() ? threadCount -> objects.length
+                : threadCount -> (long) objects.length * threadCount;
+
+        if (experiment.isTypeCheck()) {
+            ArrayListT<A0> list = this.classHierarchy.generateArrayListWorkloadA0(objects);
+            Class<?>[] targets = getTypeCheckTargets(classRegistry, strategy,
+                    experiment == ScalingExperiment.CHECKCAST);
+
+            return executeSweep(name, runCount, warmupRuns, operationsPerRun,
+                    makeTypeCheckKernel(experiment, list, loadTypeChecks(targets)));
+        }
+
+        ThreadKernel kernel = experiment.isGeneric()
+                ? makeReadKernel(experiment, this.classHierarchy.generateArrayListWorkloadA0(objects))
+                : makeReadKernel(experiment, this.classHierarchy.generateA0ListWorkloadA0(objects));
+
+        return executeSweep(name, runCount, warmupRuns, operationsPerRun, kernel);
+    }
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: ScalingBenchmark <experiment_type> <10000|1000000|10000000> [<max_threads>]");
+            System.exit(0xFF);
+        }
+
+        ScalingExperiment experiment = ScalingExperiment.valueOf(args[0].toUpperCase());
+        Triple<Integer, Integer, String> experimentSize = ClassHierarchy.getExperimentSize(args[1]);
+        int maxThreads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        SamplingStrategy strategyType = SamplingStrategy.valueOf(System.getProperty("scaling.strategy",
+                SamplingStrategy.SAME_LAST_LEAF.name()).toUpperCase());
+
+        ClassHierarchy classHierarchy = new ClassHierarchy("class_structure.json", "generated.classes");
+        ScalingBenchmark benchmark = new ScalingBenchmark(classHierarchy, maxThreads);
+
+        int runCount = experimentSize.getSecond();
+        int warmupRuns = experimentSize.getSecond() / 10;
+        long seed = Long.getLong("strategy.seed", new Random().nextLong());
+
+        List<ScalingResult> results = benchmark.execute(experiment, runCount, warmupRuns, experimentSize.getFirst(),
+                strategyType, seed);
+
+        /* Print the results */
+        System.out.println(experiment + " " + experimentSize.toString() + " Seed " + seed);
+        System.out.println("\"Experiment Name\",\"Threads\"," + ClassHierarchy.LATENCY_CSV_HEADER +
+                ",\"Throughput [M ops/s]\",\"Speedup\"");
+        for (ScalingResult result : results)
+            System.out.println("\"" + result.getName() + "\"," + result.getThreadCount() + "," +
+                    ClassHierarchy.toLatencyCsv(result.getTime()) + "," + result.getThroughput() / 1e6 + "," +
+                    result.getThroughput() / results.get(0).getThroughput());
+    }
+}
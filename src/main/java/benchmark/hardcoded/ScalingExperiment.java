@@ -0,0 +1,45 @@
+package benchmark.hardcoded;
+
+enum ScalingExperiment {
+    /* Each retrieved element is checked with instanceof against alternating interfaces */
+    INSTANCEOF(true, false, "Instanceof"),
+    /* Each retrieved element is cast with checkcast to alternating interfaces */
+    CHECKCAST(true, false, "Checkcast"),
+    /* Each thread retrieves the elements of its own contiguous slice of the list */
+    SLICED_READ_GENERIC(true, true, "Sliced Retrieval"),
+    SLICED_READ_HARDCODED(false, true, "Sliced Retrieval"),
+    /* Each thread retrieves all the elements of the list, starting from its own offset */
+    FULL_READ_GENERIC(true, false, "Full Retrieval"),
+    FULL_READ_HARDCODED(false, false, "Full Retrieval");
+
+    private final boolean generic;
+    private final boolean sliced;
+    private final String displayName;
+
+    ScalingExperiment(boolean generic, boolean sliced, String displayName) {
+        this.generic = generic;
+        this.sliced = sliced;
+        this.displayName = displayName;
+    }
+
+    public boolean isGeneric() {
+        return this.generic;
+    }
+
+    /**
+     * Checks if the threads split the list between them, or if each of them traverses all of it
+     *
+     * @return true if every element is retrieved by a single thread in each run
+     */
+    public boolean isSliced() {
+        return this.sliced;
+    }
+
+    public boolean isTypeCheck() {
+        return this == INSTANCEOF || this == CHECKCAST;
+    }
+
+    public String getDisplayName() {
+        return this.displayName;
+    }
+}
@@ -0,0 +1,289 @@
+package benchmark.hardcoded;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the generated classes of a hierarchy in parallel, following the dependency order of the hierarchy: a
+ * class only depends on its ancestors (and on the interfaces of its ancestors), hence the subtrees below a given
+ * level are independent of each other. The levels above the first level with at least one class per shard form the
+ * trunk, which is compiled first, as a single unit; the subtrees rooted at that level are then balanced over the
+ * shards, and the shards are compiled concurrently against the compiled trunk.
+ *
+ * The compilation is incremental: a class is only compiled if its class file is missing or older than its source,
+ * or if one of its ancestors is compiled. Since ClassGenerator does not rewrite unchanged classes, regenerating a
+ * hierarchy with the same generator.seed compiles nothing.
+ */
+public class ShardedCompiler {
+    private static final String SOURCE_ROOT = "src/main/java";
+    private static final String INTERFACE_PREFIX = "I";
+    private static final String TYPE_CHECK_PREFIX = "TypeCheck";
+
+    /* Finds the parent in the declaration of a generated subclass */
+    private static final Pattern EXTENDS_PATTERN = Pattern.compile("\\bclass\\s+\\w+\\s+extends\\s+(\\w+)");
+
+    private final JavaCompiler compiler;
+    private final String packagePath;
+    private final File sourceDirectory;
+    private final File outputDirectory;
+    private final int shardCount;
+
+    /* The timing of the last compilation, in nanoseconds */
+    private long trunkTime;
+    private long shardTime;
+
+    /**
+     * @param packagePath the package of the generated classes
+     * @param outputDirectory the directory of the class files, e.g. target/classes
+     * @param shardCount the number of shards which are compiled concurrently
+     * @throws IllegalStateException if the JVM does not provide a Java compiler
+     */
+    public ShardedCompiler(String packagePath, String outputDirectory, int shardCount) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (this.compiler == null)
+            throw new IllegalStateException("No Java compiler is available; the sharded compilation requires a JDK");
+
+        this.packagePath = packagePath;
+        this.sourceDirectory = new File(SOURCE_ROOT, packagePath.replace('.', File.separatorChar));
+        this.outputDirectory = new File(outputDirectory);
+        this.shardCount = shardCount;
+    }
+
+    public long getTrunkTime() {
+        return this.trunkTime;
+    }
+
+    public long getShardTime() {
+        return this.shardTime;
+    }
+
+    private File getSourceFile(String name) {
+        return new File(this.sourceDirectory, name + ".java");
+    }
+
+    private File getClassFile(String name) {
+        return new File(this.outputDirectory, this.packagePath.replace('.', File.separatorChar) + File.separator +
+                name + ".class");
+    }
+
+    /**
+     * Get the sources of a class: the class itself, and its interface and the type check kernel of that interface,
+     * if the hierarchy has interfaces
+     *
+     * @param name the name of the class
+     * @return the source files of the class
+     */
+    private List<File> getSourceFiles(String name) {
+        List<File> res = new ArrayList<>();
+        res.add(getSourceFile(name));
+
+        File interfaceFile = getSourceFile(INTERFACE_PREFIX + name);
+        if (interfaceFile.isFile())
+            res.add(interfaceFile);
+
+        File typeCheckFile = getSourceFile(TYPE_CHECK_PREFIX + INTERFACE_PREFIX + name);
+        if (typeCheckFile.isFile())
+            res.add(typeCheckFile);
+
+        return res;
+    }
+
+    /**
+     * Checks if the sources of a class are newer than its class files
+     *
+     * @param name the name of the class
+     * @return true if a class file is missing or out of date
+     */
+    private boolean isOutOfDate(String name) {
+        for (File sourceFile : getSourceFiles(name)) {
+            String fileName = sourceFile.getName();
+            File classFile = getClassFile(fileName.substring(0, fileName.length() - ".java".length()));
+
+            if (!classFile.isFile() || classFile.lastModified() < sourceFile.lastModified())
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Compiles a set of classes as a single unit, against the class path of the JVM and the output directory
+     *
+     * @param names the names of the classes
+     * @throws IllegalStateException if the classes do not compile
+     */
+    private void compileUnit(List<String> names) throws IOException {
+        if (names.isEmpty())
+            return;
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager fileManager = this.compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            List<File> sourceFiles = new ArrayList<>();
+            for (String name : names)
+                sourceFiles.addAll(getSourceFiles(name));
+
+            List<String> options = Arrays.asList("-d", this.outputDirectory.getPath(), "-cp",
+                    this.outputDirectory.getPath() + File.pathSeparator + System.getProperty("java.class.path"),
+                    "-source", "1.8", "-target", "1.8", "-Xlint:-options", "-proc:none", "-nowarn");
+
+            boolean success = this.compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+
+            if (!success) {
+                StringBuilder message = new StringBuilder("The generated classes do not compile:");
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+                    message.append(System.lineSeparator()).append(diagnostic);
+
+                throw new IllegalStateException(message.toString());
+            }
+        }
+    }
+
+    /**
+     * Splits the subtrees over the shards, largest subtree first, each into the shard with the fewest classes
+     *
+     * @param subtrees the classes to be compiled, grouped by subtree
+     * @return the classes of each shard
+     */
+    private List<List<String>> balance(Collection<List<String>> subtrees) {
+        List<List<String>> sortedSubtrees = new ArrayList<>(subtrees);
+        sortedSubtrees.sort((x, y) -> Integer.compare(y.size(), x.size()));
+
+        List<List<String>> shards = new ArrayList<>();
+        PriorityQueue<Integer> lightestShards = new PriorityQueue<>(Comparator.comparingInt(i -> shards.get(i).size()));
+
+        for (int i = 0; i < this.shardCount; ++i) {
+            shards.add(new ArrayList<>());
+            lightestShards.add(i);
+        }
+
+        for (List<String> subtree : sortedSubtrees) {
+            int shard = lightestShards.poll();
+            shards.get(shard).addAll(subtree);
+            lightestShards.add(shard);
+        }
+
+        return shards;
+    }
+
+    /**
+     * Compiles the out of date classes of a hierarchy
+     *
+     * @param classHierarchy the classes at each level of the hierarchy, as listed in class_structure.json
+     * @return the number of compiled classes
+     * @throws IOException if a source cannot be read
+     * @throws IllegalStateException if the classes do not compile
+     */
+    public int compile(List<String>[] classHierarchy) throws IOException {
+        Map<String, String> parents = new HashMap<>();
+        Set<String> outOfDate = new HashSet<>();
+
+        // The levels are visited top down, hence the parents are always visited before their subclasses
+        for (int depth = 0; depth < classHierarchy.length; ++depth)
+            for (String name : classHierarchy[depth]) {
+                if (depth > 0) {
+                    Matcher matcher = EXTENDS_PATTERN.matcher(new String(Files.readAllBytes(
+                            getSourceFile(name).toPath()), StandardCharsets.UTF_8));
+
+                    if (!matcher.find())
+                        throw new IllegalStateException("Cannot find the parent of " + name);
+
+                    parents.put(name, matcher.group(1));
+                }
+
+                if (outOfDate.contains(parents.get(name)) || isOutOfDate(name))
+                    outOfDate.add(name);
+            }
+
+        int splitDepth = 0;
+        while (splitDepth < classHierarchy.length - 1 && classHierarchy[splitDepth].size() < this.shardCount)
+            ++splitDepth;
+
+        List<String> trunk = new ArrayList<>();
+        Map<String, List<String>> subtrees = new LinkedHashMap<>();
+        Map<String, String> subtreeRoots = new HashMap<>();
+
+        for (int depth = 0; depth < classHierarchy.length; ++depth)
+            for (String name : classHierarchy[depth]) {
+                String subtreeRoot = depth == splitDepth ? name : subtreeRoots.get(parents.get(name));
+
+                if (depth < splitDepth) {
+                    if (outOfDate.contains(name))
+                        trunk.add(name);
+                    continue;
+                }
+
+                subtreeRoots.put(name, subtreeRoot);
+                if (outOfDate.contains(name))
+                    subtrees.computeIfAbsent(subtreeRoot, k -> new ArrayList<>()).add(name);
+            }
+
+        this.outputDirectory.mkdirs();
+
+        long startTime = System.nanoTime();
+        compileUnit(trunk);
+        this.trunkTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(this.shardCount);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (List<String> shard : balance(subtrees.values()))
+                results.add(pool.submit(() -> {
+                    compileUnit(shard);
+                    return null;
+                }));
+
+            for (Future<?> result : results)
+                result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw new IllegalStateException("A shard has failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        this.shardTime = System.nanoTime() - startTime;
+
+        return outOfDate.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Usage: ShardedCompiler <json_path> <package> <output_directory> [<shard_count>]");
+            System.exit(0xFF);
+        }
+
+        List<String>[] classHierarchy = ClassHierarchy.readClassHierarchy(args[0]);
+        int shardCount = args.length == 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        ShardedCompiler compiler = new ShardedCompiler(args[1], args[2], shardCount);
+
+        int compiledCount = compiler.compile(classHierarchy);
+        int classCount = Arrays.stream(classHierarchy).mapToInt(List::size).sum();
+
+        System.out.println("Compiled " + compiledCount + " of " + classCount + " classes in " + shardCount +
+                " shards: trunk " + compiler.getTrunkTime() / 1e6 + " ms, shards " + compiler.getShardTime() / 1e6 +
+                " ms");
+    }
+}
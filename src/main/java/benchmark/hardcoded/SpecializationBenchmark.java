@@ -0,0 +1,175 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.ArrayStrategy;
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.ListKernel;
+import benchmark.hardcoded.types.Triple;
+import generated.classes.A0;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares the generated list specializations (see ClassGenerator's --lists mode) with the generic list, for
+ * element classes at different positions in the hierarchy. The workload of an element class is sampled uniformly
+ * from the class and its descendants, hence every element passes the casts to the element class.
+ *
+ * The generic list erases its elements to Object, so every retrieval is followed by a cast to the element class,
+ * while every store is free of checks. The specialized list stores into an array of the element class, so every
+ * store is checked against it, while the retrievals need no cast. Final element classes reduce both checks to a
+ * comparison of the klass pointer.
+ */
+public class SpecializationBenchmark {
+    /* The package of the generated list specializations */
+    private static final String LIST_PACKAGE = "generated.lists";
+
+    /* The operations of a run, in execution order */
+    private static final String[] OPERATIONS = {"Create", "Retrieve", "Call"};
+
+    private final ClassHierarchy classHierarchy;
+    private final ClassRegistry classRegistry;
+    private final FactoryCache factoryCache;
+
+    /* Accumulates the values returned by the kernels */
+    private long sink;
+
+    public SpecializationBenchmark(ClassHierarchy classHierarchy) throws ClassNotFoundException {
+        this.classHierarchy = classHierarchy;
+        this.classRegistry = classHierarchy.populateClassRegistry();
+        this.factoryCache = new FactoryCache(this.classRegistry);
+    }
+
+    /**
+     * Loads the kernel of the specialization of an element class
+     *
+     * @param elementClassName the simple name of the element class
+     * @return a new kernel
+     * @throws IllegalStateException if the specialization has not been generated
+     */
+    static ListKernel loadKernel(String elementClassName) {
+        String kernelName = LIST_PACKAGE + ".ArrayList" + elementClassName + "$Kernel";
+
+        try {
+            return (ListKernel) Class.forName(kernelName).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load " + kernelName + "; generate it with ClassGenerator " +
+                    "--lists " + LIST_PACKAGE + " <class_package> " + elementClassName, e);
+        }
+    }
+
+    /**
+     * Instantiates a workload whose classes are drawn uniformly from an element class and its descendants
+     *
+     * @param elementClassName the simple name of the element class
+     * @param sampleCount the number of objects in the workload
+     * @param seed the seed of the workload
+     * @return the objects of the workload
+     */
+    A0[] instantiateSubtree(String elementClassName, int sampleCount, long seed) {
+        int elementClassId = this.classRegistry.getClassId(elementClassName);
+        int[] classIds = new int[this.classRegistry.getClassCount()];
+        int subtreeSize = 0;
+
+        for (int classId = 0; classId < classIds.length; ++classId)
+            if (this.classRegistry.isSubclassOf(classId, elementClassId))
+                classIds[subtreeSize++] = classId;
+
+        double[] weights = new double[subtreeSize];
+        Arrays.fill(weights, 1.0);
+
+        StrategyGenerator generator = new StrategyGenerator(new AliasSampler(Arrays.copyOf(classIds, subtreeSize),
+                weights), seed, ForkJoinPool.commonPool());
+
+        return this.factoryCache.instantiate(new ArrayStrategy(generator.generate(sampleCount)),
+                AllocationOrder.SEQUENTIAL);
+    }
+
+    /**
+     * Executes one run over both lists of a kernel
+     *
+     * @param kernel the kernel of the specialization
+     * @param objects the workload
+     * @param results the histograms of the operations, indexed by name, or null for warmup runs
+     */
+    private void run(ListKernel kernel, A0[] objects, Map<String, LatencyHistogram> results) {
+        for (boolean generic : new boolean[]{true, false}) {
+            String prefix = (generic ? "Generic List, " : "Custom List, ") + kernel.getElementClassName() + ", ";
+
+            for (String operation : OPERATIONS) {
+                long startTime = System.nanoTime();
+
+                switch (operation) {
+                    case "Create":
+                        if (generic)
+                            kernel.createGeneric(objects);
+                        else
+                            kernel.createHardcoded(objects);
+                        break;
+                    case "Retrieve":
+                        this.sink += generic ? kernel.retrieveGeneric() : kernel.retrieveHardcoded();
+                        break;
+                    default:
+                        this.sink += generic ? kernel.callGeneric() : kernel.callHardcoded();
+                }
+
+                long time = System.nanoTime() - startTime;
+
+                if (results != null)
+                    results.computeIfAbsent(prefix + operation, k -> new LatencyHistogram()).record(time);
+            }
+        }
+    }
+
+    /**
+     * Benchmarks the specialization of an element class against the generic list
+     *
+     * @param elementClassName the simple name of the element class
+     * @param runCount the number of measured runs
+     * @param warmupRuns the number of warmup runs
+     * @param sampleCount the number of objects in the lists
+     * @param seed the seed of the workload
+     * @return the histograms of the operations, indexed by name, in execution order
+     */
+    public Map<String, LatencyHistogram> execute(String elementClassName, int runCount, int warmupRuns,
+                                                 int sampleCount, long seed) {
+        ListKernel kernel = loadKernel(elementClassName);
+        A0[] objects = instantiateSubtree(elementClassName, sampleCount, seed);
+        Map<String, LatencyHistogram> results = new LinkedHashMap<>();
+
+        for (int i = 0; i < warmupRuns; ++i)
+            run(kernel, objects, null);
+
+        // Run a GC call, to help guarantee that the first experiment will be `clean`
+        System.gc();
+
+        for (int i = 0; i < runCount; ++i)
+            run(kernel, objects, results);
+
+        return results;
+    }
+
+    public static void main(String[] args) throws ClassNotFoundException, IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SpecializationBenchmark <10000|1000000|10000000> " +
+                    "<class_name>[,<class_name>...]");
+            System.exit(0xFF);
+        }
+
+        Triple<Integer, Integer, String> experimentSize = ClassHierarchy.getExperimentSize(args[0]);
+        ClassHierarchy classHierarchy = new ClassHierarchy("class_structure.json", "generated.classes");
+        SpecializationBenchmark benchmark = new SpecializationBenchmark(classHierarchy);
+
+        int runCount = experimentSize.getSecond();
+        int warmupRuns = experimentSize.getSecond() / 10;
+        long seed = Long.getLong("strategy.seed", new Random().nextLong());
+
+        System.out.println("SPECIALIZATION " + experimentSize.toString() + " Seed " + seed);
+        System.out.println("\"Experiment Name\"," + ClassHierarchy.LATENCY_CSV_HEADER);
+
+        for (String elementClassName : args[1].split(","))
+            for (Map.Entry<String, LatencyHistogram> result : benchmark.execute(elementClassName.trim(), runCount,
+                    warmupRuns, experimentSize.getFirst(), seed).entrySet())
+                System.out.println("\"" + result.getKey() + "\"," + ClassHierarchy.toLatencyCsv(result.getValue()));
+    }
+}
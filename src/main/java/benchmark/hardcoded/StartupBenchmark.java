@@ -0,0 +1,251 @@
+package benchmark.hardcoded;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures the startup cost of a generated hierarchy, i.e. the time spent loading, linking and initializing its
+ * classes before any experiment can run, and how much of it an application class data sharing (AppCDS) archive saves.
+ *
+ * <ul>
+ *     <li>load: loads the classes of a hierarchy in level order in this JVM, first without initializing them, then
+ *     initializing them, which links them as well, and prints the times as a CSV row</li>
+ *     <li>compare: packs the class path into a jar (CDS only archives classes loaded from jars), dumps a dynamic
+ *     AppCDS archive with -XX:ArchiveClassesAtExit from a forked load run, then alternates forked load runs without
+ *     and with -XX:SharedArchiveFile, and prints their wall-clock and load times</li>
+ *     <li>speedup: alternates forked JVMs which build the ClassRegistry of a hierarchy serially and level by level
+ *     on a fork/join pool, and prints the speedup of the concurrent class loading</li>
+ * </ul>
+ *
+ * Other hierarchy shapes are measured by generating them with ClassGenerator, compiling them with ShardedCompiler
+ * into a class path directory, and passing their class_structure.json and package.
+ */
+public class StartupBenchmark {
+    /* The columns of a load run */
+    static final String LOAD_CSV_HEADER = "\"Classes\",\"Load Time [ms]\",\"Link and Init Time [ms]\"," +
+            "\"Load Time per Class [us]\",\"JVM Uptime [ms]\"";
+
+    /* The columns of a registry run */
+    static final String REGISTRY_CSV_HEADER = "\"Threads\",\"Registry Time [ms]\"";
+
+    /**
+     * Builds the registry of a hierarchy, which loads and initializes its classes
+     *
+     * @param classHierarchy the classes at each level of the hierarchy
+     * @param packagePath the package of the classes
+     * @param threadCount the number of threads which load the classes of a level, or 0 to use the serial path
+     * @return the CSV row of the run, matching REGISTRY_CSV_HEADER
+     * @throws ClassNotFoundException if a class cannot be loaded
+     */
+    static String buildRegistry(List<String>[] classHierarchy, String packagePath, int threadCount)
+            throws ClassNotFoundException {
+        ForkJoinPool pool = threadCount > 0 ? new ForkJoinPool(threadCount) : null;
+
+        try {
+            long startTime = System.nanoTime();
+            new ClassRegistry(classHierarchy, packagePath, StartupBenchmark.class.getClassLoader(), pool);
+
+            return threadCount + "," + (System.nanoTime() - startTime) / 1e6;
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+    }
+
+    /**
+     * Loads the classes of a hierarchy in level order, such that every class is loaded after its parent
+     *
+     * @param classHierarchy the classes at each level of the hierarchy
+     * @param packagePath the package of the classes
+     * @return the CSV row of the run, matching LOAD_CSV_HEADER
+     * @throws ClassNotFoundException if a class cannot be loaded
+     */
+    static String load(List<String>[] classHierarchy, String packagePath) throws ClassNotFoundException {
+        ClassLoader classLoader = StartupBenchmark.class.getClassLoader();
+        int classCount = 0;
+
+        long startTime = System.nanoTime();
+        for (List<String> level : classHierarchy)
+            for (String className : level) {
+                Class.forName(packagePath + "." + className, false, classLoader);
+                ++classCount;
+            }
+        long loadTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (List<String> level : classHierarchy)
+            for (String className : level)
+                Class.forName(packagePath + "." + className, true, classLoader);
+        long initTime = System.nanoTime() - startTime;
+
+        return classCount + "," + loadTime / 1e6 + "," + initTime / 1e6 + "," + loadTime / 1e3 / classCount + "," +
+                ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * Packs the directories of the class path into a jar, since CDS skips the classes loaded from directories
+     *
+     * @param jarPath the path of the jar
+     * @return the class path in which the directories are replaced by the jar
+     * @throws IOException if the jar cannot be written
+     */
+    static String packClassPath(String jarPath) throws IOException {
+        List<String> classPath = new ArrayList<>();
+        classPath.add(jarPath);
+
+        try (JarOutputStream jar = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(jarPath)))) {
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                Path root = Paths.get(entry);
+
+                if (!Files.isDirectory(root)) {
+                    classPath.add(entry);
+                    continue;
+                }
+
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                        jar.putNextEntry(new JarEntry(root.relativize(file).toString().replace(File.separatorChar,
+                                '/')));
+                        Files.copy(file, jar);
+                        jar.closeEntry();
+                    }
+                }
+            }
+        }
+
+        return String.join(File.pathSeparator, classPath);
+    }
+
+    /**
+     * Runs the benchmark in a forked JVM
+     *
+     * @param flags the additional flags of the JVM
+     * @param classPath the class path of the JVM
+     * @param arguments the arguments of the benchmark, starting with the mode
+     * @return the wall-clock time of the JVM in milliseconds, followed by the CSV row of the run
+     * @throws IOException if the JVM cannot be started, or if it fails
+     * @throws InterruptedException
+     */
+    static String runForked(List<String> flags, String classPath, String... arguments)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(flags);
+        command.addAll(Arrays.asList("-cp", classPath, StartupBenchmark.class.getName()));
+        command.addAll(Arrays.asList(arguments));
+
+        long startTime = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String row = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+
+            // The last line is the row; the header and any VM output come before it
+            while ((line = reader.readLine()) != null)
+                row = line;
+        }
+
+        int exitCode = process.waitFor();
+        long wallTime = System.nanoTime() - startTime;
+
+        if (exitCode != 0 || row == null)
+            throw new IOException("The JVM exited with code " + exitCode + ": " + String.join(" ", command));
+
+        return wallTime / 1e6 + "," + row;
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException, InterruptedException {
+        String mode = args.length > 0 ? args[0] : "";
+        boolean valid;
+
+        switch (mode) {
+            case "load": valid = args.length == 3; break;
+            case "registry": valid = args.length == 4; break;
+            case "compare": valid = args.length == 4 || args.length == 5; break;
+            case "speedup": valid = args.length >= 3 && args.length <= 5; break;
+            default: valid = false;
+        }
+
+        if (!valid) {
+            System.err.println("Usage: StartupBenchmark load <json_path> <package>\n" +
+                    "   or: StartupBenchmark registry <json_path> <package> <threads>\n" +
+                    "   or: StartupBenchmark compare <json_path> <package> <archive_path> [<runs>]\n" +
+                    "   or: StartupBenchmark speedup <json_path> <package> [<threads>] [<runs>]");
+            System.exit(0xFF);
+        }
+
+        if (mode.equals("load") || mode.equals("registry")) {
+            List<String>[] classHierarchy = ClassHierarchy.readClassHierarchy(args[1]);
+
+            if (mode.equals("load")) {
+                System.out.println(LOAD_CSV_HEADER);
+                System.out.println(load(classHierarchy, args[2]));
+            } else {
+                System.out.println(REGISTRY_CSV_HEADER);
+                System.out.println(buildRegistry(classHierarchy, args[2], Integer.parseInt(args[3])));
+            }
+
+            return;
+        }
+
+        if (mode.equals("speedup")) {
+            String classPath = System.getProperty("java.class.path");
+            String threadCount = args.length >= 4 ? args[3] :
+                    Integer.toString(Runtime.getRuntime().availableProcessors());
+            int runCount = args.length == 5 ? Integer.parseInt(args[4]) : 10;
+            double speedupSum = 0;
+
+            System.out.println("\"Run\",\"Serial Time [ms]\",\"Parallel Time [ms]\",\"Threads\",\"Speedup\"");
+
+            // Every run needs a fresh JVM, as the classes are loaded once per class loader
+            for (int i = 0; i < runCount; ++i) {
+                double serialTime = Double.parseDouble(runForked(new ArrayList<>(), classPath, "registry", args[1],
+                        args[2], "0").split(",")[2]);
+                double parallelTime = Double.parseDouble(runForked(new ArrayList<>(), classPath, "registry",
+                        args[1], args[2], threadCount).split(",")[2]);
+
+                speedupSum += serialTime / parallelTime;
+                System.out.println(i + "," + serialTime + "," + parallelTime + "," + threadCount + "," +
+                        serialTime / parallelTime);
+            }
+
+            System.out.println("\"Mean\",,," + threadCount + "," + speedupSum / runCount);
+            return;
+        }
+
+        String archivePath = args[3];
+        int runCount = args.length == 5 ? Integer.parseInt(args[4]) : 10;
+        String classPath = packClassPath(archivePath + ".jar");
+
+        // The archive holds the classes loaded by the dump run, i.e. the benchmark and the whole hierarchy
+        Files.deleteIfExists(Paths.get(archivePath));
+        runForked(Arrays.asList("-XX:ArchiveClassesAtExit=" + archivePath, "-Xlog:cds=off"), classPath, "load",
+                args[1], args[2]);
+
+        if (!Files.isRegularFile(Paths.get(archivePath)))
+            throw new IllegalStateException("The JVM did not dump the archive " + archivePath);
+
+        System.out.println("\"Archive\",\"Run\",\"Wall Time [ms]\"," + LOAD_CSV_HEADER);
+
+        // The runs alternate, such that both configurations see the same state of the machine
+        for (int i = 0; i < runCount; ++i) {
+            System.out.println("false," + i + "," + runForked(new ArrayList<>(), classPath, "load", args[1],
+                    args[2]));
+            System.out.println("true," + i + "," + runForked(Arrays.asList("-XX:SharedArchiveFile=" + archivePath,
+                    "-Xshare:auto"), classPath, "load", args[1], args[2]));
+        }
+    }
+}
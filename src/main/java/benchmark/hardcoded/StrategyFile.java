@@ -0,0 +1,201 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.MappedStrategy;
+import benchmark.hardcoded.types.StrategyView;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads and writes sampling strategies in a compact, versioned binary format. A file consists of a fixed size header
+ * followed by a dense column of class ids:
+ *
+ * <pre>
+ *   offset  type   content
+ *        0  int    magic number ("JHPC")
+ *        4  short  format version
+ *        6  byte   class id width in bytes (2 for unsigned shorts, 4 for ints)
+ *        7  byte   reserved
+ *        8  long   fingerprint of the class hierarchy the strategy was generated for
+ *       16  int    number of classes in the hierarchy
+ *       20  int    number of samples in the strategy
+ *       24  long   reserved
+ *       32  ...    the class id column
+ * </pre>
+ *
+ * All values are stored in little endian order. The id column is memory mapped when read, so loading a strategy
+ * neither copies it onto the heap nor depends on its size.
+ */
+public class StrategyFile {
+    /* "JHPC" in ASCII; used to tell these files apart from the legacy Java-serialized String[] strategies */
+    static final int MAGIC = 0x4A485043;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /* A single MappedByteBuffer cannot exceed 2 GiB, hence the id column is mapped in segments of 1 GiB */
+    private static final int SEGMENT_SHIFT = 30;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Get the number of bytes required to store a class id, given the number of classes in the hierarchy
+     *
+     * @param classCount the number of classes in the hierarchy
+     * @return 2 if the ids fit in an unsigned short, 4 otherwise
+     */
+    public static int getIdWidth(int classCount) {
+        return classCount <= 0x10000 ? Short.BYTES : Integer.BYTES;
+    }
+
+    /**
+     * Checks if a file holds a binary strategy, as opposed to a Java-serialized one.
+     *
+     * @param path the path to the strategy file
+     * @return true if the file starts with the magic number of the binary format
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isStrategyFile(String path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            return file.length() >= HEADER_SIZE && Integer.reverseBytes(file.readInt()) == MAGIC;
+        }
+    }
+
+    /**
+     * Builds the header of a binary strategy file.
+     *
+     * @param sampleCount the number of samples in the strategy
+     * @param classCount the number of classes in the hierarchy
+     * @param fingerprint the fingerprint of the hierarchy
+     * @return a buffer holding the header, ready to be written
+     */
+    static ByteBuffer makeHeader(int sampleCount, int classCount, long fingerprint) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.put((byte) getIdWidth(classCount));
+        header.put((byte) 0);
+        header.putLong(fingerprint);
+        header.putInt(classCount);
+        header.putInt(sampleCount);
+        header.putLong(0L);
+        header.flip();
+
+        return header;
+    }
+
+    /**
+     * Writes a strategy to a file in the binary format.
+     *
+     * @param strategy the strategy to be written
+     * @param classCount the number of classes in the hierarchy
+     * @param fingerprint the fingerprint of the hierarchy
+     * @param path the path of the file where the strategy will be saved
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(StrategyView strategy, int classCount, long fingerprint, String path)
+            throws IOException {
+        int idWidth = getIdWidth(classCount);
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            channel.write(makeHeader(strategy.size(), classCount, fingerprint));
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(BYTE_ORDER);
+
+            for (int i = 0; i < strategy.size(); ++i) {
+                if (buffer.remaining() < idWidth) {
+                    buffer.flip();
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                    buffer.clear();
+                }
+
+                if (idWidth == Short.BYTES)
+                    buffer.putShort((short) strategy.getClassId(i));
+                else
+                    buffer.putInt(strategy.getClassId(i));
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Maps a binary strategy file into memory. The mapping remains valid after this method returns.
+     *
+     * @param path the path to the strategy file
+     * @return a random-access view over the mapped strategy
+     * @throws IOException if the file cannot be read or is not a valid strategy file
+     */
+    public static MappedStrategy map(String path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path, "r");
+             FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_SIZE)
+                throw new IOException("The file is too small to be a strategy file: " + path);
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(BYTE_ORDER);
+
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("The file is not a binary strategy file: " + path);
+            if (header.getShort(4) != VERSION)
+                throw new IOException("Unsupported strategy file version " + header.getShort(4) + ": " + path);
+
+            int idWidth = header.get(6);
+            long fingerprint = header.getLong(8);
+            int classCount = header.getInt(16);
+            int sampleCount = header.getInt(20);
+
+            if (idWidth != Short.BYTES && idWidth != Integer.BYTES)
+                throw new IOException("Unsupported class id width " + idWidth + ": " + path);
+            if (classCount <= 0)
+                throw new IOException("Invalid class count " + classCount + ": " + path);
+            if (sampleCount < 0)
+                throw new IOException("Invalid sample count " + sampleCount + ": " + path);
+
+            long columnSize = (long) sampleCount * idWidth;
+
+            if (channel.size() < HEADER_SIZE + columnSize)
+                throw new IOException("The strategy file is truncated: " + path);
+
+            long segmentSize = 1L << SEGMENT_SHIFT;
+            int segmentCount = (int) ((columnSize + segmentSize - 1) >>> SEGMENT_SHIFT);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+
+            for (int i = 0; i < segmentCount; ++i) {
+                long offset = (long) i << SEGMENT_SHIFT;
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + offset,
+                        Math.min(segmentSize, columnSize - offset));
+                segments[i] = segment.order(BYTE_ORDER);
+            }
+
+            return new MappedStrategy(segments, SEGMENT_SHIFT, idWidth, sampleCount, classCount, fingerprint);
+        }
+    }
+
+    /**
+     * Converts a Java-serialized strategy to the binary format.
+     *
+     * args: the path to the class hierarchy json, the serialized strategy, the output path
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 3) {
+            System.err.println("Usage: StrategyFile <class_structure.json> <serialized_strategy> <output_path>");
+            System.exit(0xFF);
+        }
+
+        ClassHierarchy classHierarchy = new ClassHierarchy(args[0], "generated.classes");
+        StrategyView strategy = classHierarchy.toStrategyView(ClassHierarchy.deserializeStrategy(args[1]));
+
+        write(strategy, classHierarchy.getClassNames().length, classHierarchy.getFingerprint(), args[2]);
+
+        System.out.println("Converted " + strategy.size() + " samples to " + args[2]);
+    }
+}
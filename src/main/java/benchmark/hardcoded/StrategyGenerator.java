@@ -0,0 +1,180 @@
+package benchmark.hardcoded;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates sampling strategies in parallel. The samples are split into fixed size chunks, and every chunk draws from
+ * its own {@link SplittableRandom}, which is derived from the seed and the index of the chunk only. The generated
+ * strategy is therefore bit-identical for a given seed, whatever the number of cores or the scheduling of the chunks.
+ */
+public class StrategyGenerator {
+    /* The number of samples generated by a single task */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private final StrategySampler sampler;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public StrategyGenerator(StrategySampler sampler, long seed, ForkJoinPool pool) {
+        this.sampler = sampler;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * The 64 bit finalizer of MurmurHash3, used to derive well separated seeds for the chunks.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Get the random number generator of a chunk
+     *
+     * @param chunkIndex the index of the chunk
+     * @return a generator which only depends on the seed and the index of the chunk
+     */
+    private SplittableRandom getChunkRandom(int chunkIndex) {
+        return new SplittableRandom(mix64(this.seed ^ mix64(chunkIndex + 1)));
+    }
+
+    private static int getChunkCount(int sampleCount) {
+        return (int) (((long) sampleCount + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * Generate a strategy in memory
+     *
+     * @param sampleCount the number of samples to be generated
+     * @return the class ids of the strategy
+     */
+    public int[] generate(int sampleCount) {
+        int[] res = new int[sampleCount];
+
+        this.pool.invoke(new ChunkTask(0, getChunkCount(sampleCount), chunkIndex -> {
+            SplittableRandom random = getChunkRandom(chunkIndex);
+            int end = (int) Math.min((long) (chunkIndex + 1) * CHUNK_SIZE, sampleCount);
+
+            for (int i = chunkIndex * CHUNK_SIZE; i < end; ++i)
+                res[i] = this.sampler.nextClassId(random);
+        }));
+
+        return res;
+    }
+
+    /**
+     * Generate a strategy directly into a binary strategy file. Each chunk is encoded in its own buffer and written
+     * with a positional write at its offset in the file, hence the chunks are written concurrently.
+     *
+     * @param sampleCount the number of samples to be generated
+     * @param classCount the number of classes in the hierarchy
+     * @param fingerprint the fingerprint of the hierarchy
+     * @param path the path of the file where the strategy will be saved
+     * @throws IOException if the file cannot be written
+     */
+    public void write(int sampleCount, int classCount, long fingerprint, String path) throws IOException {
+        int idWidth = StrategyFile.getIdWidth(classCount);
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw");
+             FileChannel channel = file.getChannel()) {
+            channel.truncate(0);
+            file.setLength(StrategyFile.HEADER_SIZE + (long) sampleCount * idWidth);
+            writeFully(channel, StrategyFile.makeHeader(sampleCount, classCount, fingerprint), 0);
+
+            this.pool.invoke(new ChunkTask(0, getChunkCount(sampleCount), chunkIndex -> {
+                SplittableRandom random = getChunkRandom(chunkIndex);
+                int start = chunkIndex * CHUNK_SIZE;
+                int end = (int) Math.min((long) (chunkIndex + 1) * CHUNK_SIZE, sampleCount);
+                ByteBuffer buffer = ByteBuffer.allocate((end - start) * idWidth).order(StrategyFile.BYTE_ORDER);
+
+                for (int i = start; i < end; ++i) {
+                    if (idWidth == Short.BYTES)
+                        buffer.putShort((short) this.sampler.nextClassId(random));
+                    else
+                        buffer.putInt(this.sampler.nextClassId(random));
+                }
+
+                buffer.flip();
+
+                try {
+                    writeFully(channel, buffer, StrategyFile.HEADER_SIZE + (long) start * idWidth);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    /**
+     * Splits a range of chunks in halves until single chunks remain, which are then computed.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer computeChunk;
+
+        ChunkTask(int from, int to, IntConsumer computeChunk) {
+            this.from = from;
+            this.to = to;
+            this.computeChunk = computeChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                if (this.to > this.from)
+                    this.computeChunk.accept(this.from);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ChunkTask(this.from, middle, this.computeChunk),
+                    new ChunkTask(middle, this.to, this.computeChunk));
+        }
+    }
+
+    /**
+     * args: the class hierarchy json, the sampling strategy, the sample count, the seed, the output path and,
+     * optionally, the number of threads
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length != 5 && args.length != 6) {
+            System.err.println("Usage: StrategyGenerator <class_structure.json> <sampling_strategy> <sample_count> " +
+                    "<seed> <output_path> [<parallelism>]");
+            System.exit(0xFF);
+        }
+
+        ClassHierarchy classHierarchy = new ClassHierarchy(args[0], "generated.classes");
+        SamplingStrategy strategyType = SamplingStrategy.valueOf(args[1].toUpperCase());
+        int sampleCount = Integer.parseInt(args[2]);
+        long seed = Long.parseLong(args[3]);
+        ForkJoinPool pool = args.length == 6 ? new ForkJoinPool(Integer.parseInt(args[5])) : ForkJoinPool.commonPool();
+
+        long startTime = System.nanoTime();
+        new StrategyGenerator(classHierarchy.makeSampler(strategyType), seed, pool).write(sampleCount,
+                classHierarchy.getClassNames().length, classHierarchy.getFingerprint(), args[4]);
+        long time = System.nanoTime() - startTime;
+
+        System.out.println("Generated " + sampleCount + " " + strategyType + " samples into " + args[4] + " in " +
+                time / 1e6 + " ms");
+    }
+}
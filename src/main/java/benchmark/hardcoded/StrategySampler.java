@@ -0,0 +1,17 @@
+package benchmark.hardcoded;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws the class ids of a sampling strategy, one sample at a time.
+ */
+interface StrategySampler {
+
+    /**
+     * Draw the next class id of the strategy
+     *
+     * @param random the source of randomness; samplers must not use any other
+     * @return the id of the sampled class
+     */
+    int nextClassId(SplittableRandom random);
+}
@@ -0,0 +1,184 @@
+package benchmark.hardcoded;
+
+import com.google.gson.Gson;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedObject;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Converts a flight recording of a benchmark into the Chrome trace event format, which can be opened in
+ * chrome://tracing or Perfetto. The benchmark phases and runs are exported together with the collections, the JIT
+ * compilations and the deoptimizations, each on the timeline of the thread it happened on.
+ *
+ * A suitable recording is obtained by running the benchmark with
+ * -XX:StartFlightRecording=filename=benchmark.jfr,settings=src/jfr/benchmark.jfc. These settings record every
+ * compilation and deoptimization, whereas the profile settings drop the compilations which take less than 100 ms.
+ */
+public class TraceExporter {
+    /* The events which are exported */
+    private static final Set<String> EXPORTED_EVENTS = new HashSet<>(Arrays.asList("benchmark.Phase",
+            "benchmark.Run", "jdk.GarbageCollection", "jdk.Compilation", "jdk.Deoptimization"));
+
+    /* The fields which are already part of every trace event, hence are not exported as arguments */
+    private static final Set<String> IMPLICIT_FIELDS = new HashSet<>(Arrays.asList("startTime", "duration",
+            "eventThread", "stackTrace"));
+
+    /* The pseudo thread of the events without a Java thread, such as the collections */
+    private static final long VM_THREAD_ID = 0;
+
+    private final List<Map<String, Object>> traceEvents = new ArrayList<>();
+    private final Map<Long, String> threadNames = new TreeMap<>();
+    private Instant origin;
+
+    /**
+     * Formats a field value of a recorded event, such that it can be shown as an argument of a trace event
+     *
+     * @param value the value of the field
+     * @return a readable representation of the value
+     */
+    private static Object formatValue(Object value) {
+        if (value instanceof RecordedMethod) {
+            RecordedMethod method = (RecordedMethod) value;
+            return method.getType().getName() + "::" + method.getName();
+        } else if (value instanceof RecordedClass) {
+            return ((RecordedClass) value).getName();
+        } else if (value instanceof RecordedThread) {
+            return ((RecordedThread) value).getJavaName();
+        } else if (value instanceof Duration) {
+            return ((Duration) value).toNanos() / 1e3;
+        } else if (value instanceof RecordedObject || value instanceof Instant) {
+            return null;
+        }
+
+        return value;
+    }
+
+    /**
+     * Get the name of a trace event
+     *
+     * @param event the recorded event
+     * @return the phase for benchmark phases, and the kind of the event followed by its subject otherwise
+     */
+    private static String getName(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "benchmark.Phase": return event.getString("phase");
+            case "benchmark.Run": return (event.getBoolean("warmup") ? "Warmup Run " : "Run ") + event.getInt("run");
+            case "jdk.GarbageCollection":
+                return "GC " + event.getString("name") + " (" + event.getString("cause") + ")";
+            case "jdk.Compilation": return "Compile " + formatValue(event.getValue("method"));
+            case "jdk.Deoptimization": return "Deopt " + formatValue(event.getValue("method"));
+            default: return event.getEventType().getLabel();
+        }
+    }
+
+    /**
+     * Adds a recorded event to the trace
+     *
+     * @param event the recorded event
+     */
+    void add(RecordedEvent event) {
+        RecordedThread thread = event.hasField("eventThread") ? event.getThread("eventThread") : null;
+        long threadId = thread != null ? thread.getJavaThreadId() : VM_THREAD_ID;
+        this.threadNames.putIfAbsent(threadId, thread != null ? thread.getJavaName() : "VM");
+
+        Map<String, Object> args = new LinkedHashMap<>();
+        event.getFields().forEach(field -> {
+            if (IMPLICIT_FIELDS.contains(field.getName()))
+                return;
+
+            Object value = formatValue(event.getValue(field.getName()));
+            if (value != null)
+                args.put(field.getName(), value);
+        });
+
+        Map<String, Object> traceEvent = new LinkedHashMap<>();
+        traceEvent.put("name", getName(event));
+        traceEvent.put("cat", event.getEventType().getName());
+        traceEvent.put("pid", 1);
+        traceEvent.put("tid", threadId);
+        traceEvent.put("ts", Duration.between(this.origin, event.getStartTime()).toNanos() / 1e3);
+
+        if (event.getDuration().isZero()) {
+            traceEvent.put("ph", "i");
+            traceEvent.put("s", "t");
+        } else {
+            traceEvent.put("ph", "X");
+            traceEvent.put("dur", event.getDuration().toNanos() / 1e3);
+        }
+
+        traceEvent.put("args", args);
+        this.traceEvents.add(traceEvent);
+    }
+
+    /**
+     * Reads the exported events of a recording
+     *
+     * @param recordingPath the path to the recording
+     * @throws IOException if the recording cannot be read
+     */
+    public void read(String recordingPath) throws IOException {
+        List<RecordedEvent> events = new ArrayList<>();
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(Paths.get(recordingPath)))
+            if (EXPORTED_EVENTS.contains(event.getEventType().getName()))
+                events.add(event);
+
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+
+        for (RecordedEvent event : events) {
+            if (this.origin == null)
+                this.origin = event.getStartTime();
+
+            add(event);
+        }
+    }
+
+    /**
+     * Writes the trace in the JSON object format of the Chrome trace events
+     *
+     * @param writer the destination of the trace
+     */
+    public void write(Writer writer) {
+        List<Map<String, Object>> events = new ArrayList<>();
+
+        for (Map.Entry<Long, String> thread : this.threadNames.entrySet()) {
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("name", "thread_name");
+            metadata.put("ph", "M");
+            metadata.put("pid", 1);
+            metadata.put("tid", thread.getKey());
+            metadata.put("args", Collections.singletonMap("name", thread.getValue()));
+            events.add(metadata);
+        }
+
+        events.addAll(this.traceEvents);
+        new Gson().toJson(Collections.singletonMap("traceEvents", events), writer);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TraceExporter <recording.jfr> <trace.json>");
+            System.exit(0xFF);
+        }
+
+        TraceExporter exporter = new TraceExporter();
+        exporter.read(args[0]);
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]),
+                StandardCharsets.UTF_8))) {
+            exporter.write(writer);
+        }
+
+        System.out.println("Exported " + exporter.traceEvents.size() + " events to " + args[1]);
+    }
+}
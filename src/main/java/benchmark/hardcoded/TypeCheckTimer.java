@@ -0,0 +1,71 @@
+package benchmark.hardcoded;
+
+import benchmark.hardcoded.types.LatencyHistogram;
+import benchmark.hardcoded.types.TypeCheckKernel;
+
+/**
+ * Times the checks of a TypeCheckKernel. Every run casts one workload to the target class, and then checks another
+ * workload against it with instanceof; the casts and the checks are recorded in separate histograms.
+ */
+class TypeCheckTimer {
+    private final TypeCheckKernel kernel;
+
+    /* Whether every cast object is also called, through checkCastAndCall */
+    private final boolean call;
+
+    private final LatencyHistogram checkCastTimes = new LatencyHistogram();
+    private final LatencyHistogram instanceOfTimes = new LatencyHistogram();
+
+    /* Accumulates the values returned by the kernel */
+    private long sink;
+
+    /**
+     * @param kernel the kernel of the target class
+     * @param call whether typeTag() is called on every cast object
+     */
+    TypeCheckTimer(TypeCheckKernel kernel, boolean call) {
+        this.kernel = kernel;
+        this.call = call;
+    }
+
+    private long checkCast(Object[] objects) {
+        return this.call ? this.kernel.checkCastAndCall(objects) : this.kernel.checkCast(objects);
+    }
+
+    /**
+     * Warms the kernel up, then measures it
+     *
+     * @param castObjects the workload which is cast; all objects must be instances of the target class
+     * @param instanceOfObjects the workload which is checked with instanceof
+     * @param runCount the number of measured runs
+     * @param warmupRuns the number of warmup runs
+     */
+    void execute(Object[] castObjects, Object[] instanceOfObjects, int runCount, int warmupRuns) {
+        for (int i = 0; i < warmupRuns; ++i) {
+            this.sink += checkCast(castObjects);
+            this.sink += this.kernel.instanceOf(instanceOfObjects);
+        }
+
+        for (int i = 0; i < runCount; ++i) {
+            long startTime = System.nanoTime();
+            this.sink += checkCast(castObjects);
+            this.checkCastTimes.record(System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            this.sink += this.kernel.instanceOf(instanceOfObjects);
+            this.instanceOfTimes.record(System.nanoTime() - startTime);
+        }
+    }
+
+    LatencyHistogram getCheckCastTimes() {
+        return this.checkCastTimes;
+    }
+
+    LatencyHistogram getInstanceOfTimes() {
+        return this.instanceOfTimes;
+    }
+
+    long getSink() {
+        return this.sink;
+    }
+}
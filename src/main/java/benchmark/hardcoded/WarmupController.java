@@ -0,0 +1,160 @@
+package benchmark.hardcoded;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides when a warmup has reached steady state. The warmup is steady once the coefficient of variation (standard
+ * deviation over mean) of the last windowSize run times is at most targetCov, and the JIT compiler has not spent any
+ * time compiling during the last quietRuns runs. The warmup ends after maxRuns runs, whether it is steady or not.
+ *
+ * The parameters can be provided through system properties:
+ *
+ * <ul>
+ *     <li>warmup.window: the number of runs in the rolling window (default 10)</li>
+ *     <li>warmup.cov: the largest coefficient of variation of a steady window (default 0.05)</li>
+ *     <li>warmup.quiet: the number of runs without JIT compilation activity before the warmup is steady (default 3);
+ *     0 disables the check, which is also skipped if the JVM does not monitor the compilation time</li>
+ *     <li>warmup.max: the largest number of warmup runs (by default, the value given to fromSystemProperties)</li>
+ * </ul>
+ */
+public class WarmupController {
+    private final int windowSize;
+    private final double targetCov;
+    private final int quietRuns;
+    private final int maxRuns;
+    private final CompilationMXBean compilationBean;
+
+    /* The run times of the current warmup, as a ring buffer of the last windowSize runs */
+    private final long[] window;
+    private int runCount;
+
+    /* The compilation time seen after the previous run, and the number of runs since it last changed */
+    private long lastCompilationTime;
+    private int quietRunCount;
+
+    /* The number of runs of every finished warmup, and whether it was steady */
+    private final List<Integer> warmupRuns = new ArrayList<>();
+    private final List<Boolean> steadyWarmups = new ArrayList<>();
+
+    /**
+     * @param windowSize the number of runs in the rolling window
+     * @param targetCov the largest coefficient of variation of a steady window
+     * @param quietRuns the number of runs without JIT compilation activity before the warmup is steady
+     * @param maxRuns the largest number of warmup runs
+     */
+    public WarmupController(int windowSize, double targetCov, int quietRuns, int maxRuns) {
+        if (windowSize < 2)
+            throw new IllegalArgumentException("The warmup window must hold at least 2 runs: " + windowSize);
+
+        CompilationMXBean compilationBean = ManagementFactory.getCompilationMXBean();
+
+        this.windowSize = windowSize;
+        this.targetCov = targetCov;
+        this.quietRuns = quietRuns;
+        this.maxRuns = maxRuns;
+        this.compilationBean = compilationBean != null && compilationBean.isCompilationTimeMonitoringSupported() ?
+                compilationBean : null;
+        this.window = new long[windowSize];
+    }
+
+    /**
+     * Read the warmup parameters from the system properties, falling back to the defaults
+     *
+     * @param defaultMaxRuns the largest number of warmup runs, if warmup.max is not set
+     * @return the warmup controller
+     */
+    public static WarmupController fromSystemProperties(int defaultMaxRuns) {
+        return new WarmupController(Integer.getInteger("warmup.window", 10),
+                Double.parseDouble(System.getProperty("warmup.cov", "0.05")), Integer.getInteger("warmup.quiet", 3),
+                Integer.getInteger("warmup.max", defaultMaxRuns));
+    }
+
+    /**
+     * Starts a new warmup
+     */
+    public void start() {
+        this.runCount = 0;
+        this.quietRunCount = 0;
+        this.lastCompilationTime = getCompilationTime();
+    }
+
+    private long getCompilationTime() {
+        return this.compilationBean == null ? 0 : this.compilationBean.getTotalCompilationTime();
+    }
+
+    /**
+     * Records the time of a warmup run, and checks if the warmup is done
+     *
+     * @param time the time of the run
+     * @return true if the warmup is done, either because it is steady, or because it reached the upper bound
+     */
+    public boolean record(long time) {
+        this.window[this.runCount++ % this.windowSize] = time;
+
+        long compilationTime = getCompilationTime();
+        this.quietRunCount = compilationTime == this.lastCompilationTime ? this.quietRunCount + 1 : 0;
+        this.lastCompilationTime = compilationTime;
+
+        boolean steady = isSteady();
+
+        if (steady || this.runCount >= this.maxRuns) {
+            this.warmupRuns.add(this.runCount);
+            this.steadyWarmups.add(steady);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if the current warmup is steady
+     *
+     * @return true if the window is full, its coefficient of variation is small enough, and the JIT is quiet
+     */
+    private boolean isSteady() {
+        if (this.runCount < this.windowSize)
+            return false;
+
+        if (this.compilationBean != null && this.quietRunCount < this.quietRuns)
+            return false;
+
+        double mean = 0;
+        for (long time : this.window)
+            mean += time;
+        mean /= this.windowSize;
+
+        double variance = 0;
+        for (long time : this.window)
+            variance += (time - mean) * (time - mean);
+        variance /= this.windowSize;
+
+        return mean > 0 && Math.sqrt(variance) / mean <= this.targetCov;
+    }
+
+    /**
+     * Get the number of runs of every finished warmup, in order
+     *
+     * @return the number of runs of the warmups
+     */
+    public List<Integer> getWarmupRuns() {
+        return this.warmupRuns;
+    }
+
+    /**
+     * Get the number of finished warmups which reached steady state before the upper bound
+     *
+     * @return the number of steady warmups
+     */
+    public int getSteadyWarmupCount() {
+        int count = 0;
+
+        for (boolean steady : this.steadyWarmups)
+            if (steady)
+                ++count;
+
+        return count;
+    }
+}
@@ -0,0 +1,29 @@
+package benchmark.hardcoded.types;
+
+/**
+ * A strategy view which is backed by an on-heap array of class ids.
+ */
+public class ArrayStrategy implements StrategyView {
+    private final int[] classIds;
+
+    public ArrayStrategy(int[] classIds) {
+        this.classIds = classIds;
+    }
+
+    @Override
+    public int size() {
+        return this.classIds.length;
+    }
+
+    @Override
+    public int getClassId(int index) {
+        return this.classIds[index];
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayStrategy{" +
+                "size=" + classIds.length +
+                '}';
+    }
+}
@@ -0,0 +1,172 @@
+package benchmark.hardcoded.types;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size histogram of non-negative long values (typically latencies in nanoseconds), in the style of
+ * HdrHistogram. Values below 2^precisionBits are counted exactly; larger values share a bucket with the values that
+ * have the same precisionBits most significant bits, hence every recorded value is reported with a relative error
+ * below 2^(1 - precisionBits).
+ *
+ * All the buckets are allocated upfront, so recording a value neither allocates nor boxes.
+ */
+public class LatencyHistogram {
+    /* The default number of significant bits, which keeps the relative error below 1% */
+    public static final int DEFAULT_PRECISION_BITS = 8;
+
+    private final int precisionBits;
+    private final int subBucketCount;
+    private final int halfSubBucketCount;
+    private final long[] counts;
+
+    private long totalCount;
+    private long minValue;
+    private long maxValue;
+
+    /* The running mean and sum of squared deviations (Welford), which keep the mean and deviation exact */
+    private double mean;
+    private double squaredDeviations;
+
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param precisionBits the number of significant bits kept for each value, between 2 and 16
+     */
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 16)
+            throw new IllegalArgumentException("Illegal precision: " + precisionBits);
+
+        this.precisionBits = precisionBits;
+        this.subBucketCount = 1 << precisionBits;
+        this.halfSubBucketCount = this.subBucketCount >> 1;
+        this.counts = new long[this.subBucketCount + (Long.SIZE - precisionBits) * this.halfSubBucketCount];
+
+        reset();
+    }
+
+    /**
+     * Get the index of the bucket a value falls into
+     *
+     * @param value a non-negative value
+     * @return the index of the bucket
+     */
+    private int getBucketIndex(long value) {
+        if (value < this.subBucketCount)
+            return (int) value;
+
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - this.precisionBits;
+
+        return this.subBucketCount + (shift - 1) * this.halfSubBucketCount +
+                (int) ((value >>> shift) - this.halfSubBucketCount);
+    }
+
+    /**
+     * Get the largest value which falls into a bucket
+     *
+     * @param index the index of the bucket
+     * @return the upper bound of the bucket, inclusive
+     */
+    private long getHighestEquivalentValue(int index) {
+        if (index < this.subBucketCount)
+            return index;
+
+        int shift = (index - this.subBucketCount) / this.halfSubBucketCount + 1;
+        long subBucket = (index - this.subBucketCount) % this.halfSubBucketCount + this.halfSubBucketCount;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a value; negative values are recorded as 0
+     *
+     * @param value the value to be recorded
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+
+        ++this.counts[getBucketIndex(value)];
+        ++this.totalCount;
+        this.minValue = Math.min(this.minValue, value);
+        this.maxValue = Math.max(this.maxValue, value);
+
+        double delta = value - this.mean;
+        this.mean += delta / this.totalCount;
+        this.squaredDeviations += delta * (value - this.mean);
+    }
+
+    /**
+     * Removes all the recorded values
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.totalCount = 0;
+        this.minValue = Long.MAX_VALUE;
+        this.maxValue = 0;
+        this.mean = 0;
+        this.squaredDeviations = 0;
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public long getMinValue() {
+        return this.totalCount == 0 ? 0 : this.minValue;
+    }
+
+    public long getMaxValue() {
+        return this.maxValue;
+    }
+
+    public double getMean() {
+        return this.mean;
+    }
+
+    /**
+     * Get the population standard deviation of the recorded values
+     *
+     * @return the standard deviation, or 0 if nothing was recorded
+     */
+    public double getStdDev() {
+        return this.totalCount == 0 ? 0 : Math.sqrt(this.squaredDeviations / this.totalCount);
+    }
+
+    /**
+     * Get the value at a given percentile, i.e. the smallest value such that the given percentage of the recorded
+     * values are less than or equal to it. Values are reported as the upper bound of their bucket, but never above
+     * the largest recorded value.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.totalCount == 0)
+            return 0;
+
+        long threshold = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * this.totalCount));
+        long count = 0;
+
+        for (int i = 0; i < this.counts.length; ++i) {
+            count += this.counts[i];
+
+            if (count >= threshold)
+                return Math.min(getHighestEquivalentValue(i), this.maxValue);
+        }
+
+        return this.maxValue;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + totalCount +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", max=" + getMaxValue() +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark.hardcoded.types;
+
+/**
+ * Builds and traverses the lists of a generated list specialization (see ClassGenerator's --lists mode), both as a
+ * generic ArrayListT and as the specialized list. All accesses are typed with the element class of the
+ * specialization, hence the generic variants cast every retrieved element, while the hardcoded ones do not.
+ */
+public interface ListKernel {
+
+    /**
+     * Get the element class of the specialization
+     *
+     * @return the simple name of the element class
+     */
+    String getElementClassName();
+
+    /**
+     * Build the generic list out of a workload
+     *
+     * @param objects the workload; all objects must be instances of the element class
+     */
+    void createGeneric(Object[] objects);
+
+    /**
+     * Build the specialized list out of a workload
+     *
+     * @param objects the workload; all objects must be instances of the element class
+     */
+    void createHardcoded(Object[] objects);
+
+    /**
+     * Retrieve every element of the generic list
+     *
+     * @return the number of retrieved elements which are not null
+     */
+    long retrieveGeneric();
+
+    /**
+     * Retrieve every element of the specialized list
+     *
+     * @return the number of retrieved elements which are not null
+     */
+    long retrieveHardcoded();
+
+    /**
+     * Call typeTag() on every element of the generic list
+     *
+     * @return the sum of the type tags
+     */
+    long callGeneric();
+
+    /**
+     * Call typeTag() on every element of the specialized list
+     *
+     * @return the sum of the type tags
+     */
+    long callHardcoded();
+}
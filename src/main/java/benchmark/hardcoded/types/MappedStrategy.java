@@ -0,0 +1,82 @@
+package benchmark.hardcoded.types;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A strategy view which reads the class id column of a binary strategy file directly from memory mapped segments.
+ * Nothing is copied onto the heap, hence even very large strategies are available as soon as they are mapped.
+ */
+public class MappedStrategy implements StrategyView {
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final int idWidth;
+    private final int size;
+    private final int classCount;
+    private final long fingerprint;
+
+    /**
+     * Creates a view over an already mapped class id column.
+     *
+     * @param segments the mapped segments; all of them, except the last, must be exactly 2^segmentShift bytes long
+     * @param segmentShift the log2 of the segment size in bytes
+     * @param idWidth the number of bytes used to store a class id (either 2, i.e. unsigned, or 4)
+     * @param size the number of entries in the strategy
+     * @param classCount the number of classes in the hierarchy the strategy was generated for
+     * @param fingerprint the fingerprint of the hierarchy the strategy was generated for
+     */
+    public MappedStrategy(ByteBuffer[] segments, int segmentShift, int idWidth, int size, int classCount,
+                          long fingerprint) {
+        if (idWidth != Short.BYTES && idWidth != Integer.BYTES)
+            throw new IllegalArgumentException("Illegal class id width: " + idWidth);
+
+        this.segments = segments;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.idWidth = idWidth;
+        this.size = size;
+        this.classCount = classCount;
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public int getClassId(int index) {
+        if (index >= size || index < 0)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        long offset = (long) index * this.idWidth;
+        ByteBuffer segment = this.segments[(int) (offset >>> this.segmentShift)];
+
+        if (this.idWidth == Short.BYTES)
+            return segment.getShort((int) (offset & this.segmentMask)) & 0xFFFF;
+
+        return segment.getInt((int) (offset & this.segmentMask));
+    }
+
+    public int getIdWidth() {
+        return this.idWidth;
+    }
+
+    public int getClassCount() {
+        return this.classCount;
+    }
+
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedStrategy{" +
+                "size=" + size +
+                ", idWidth=" + idWidth +
+                ", classCount=" + classCount +
+                ", fingerprint=" + Long.toHexString(fingerprint) +
+                '}';
+    }
+}
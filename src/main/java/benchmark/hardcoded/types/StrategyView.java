@@ -0,0 +1,23 @@
+package benchmark.hardcoded.types;
+
+/**
+ * A random-access, read-only view over a sampling strategy. Each entry of the strategy is the id of a class in the
+ * hierarchy, i.e. the index of the class in the level-order listing of class_structure.json.
+ */
+public interface StrategyView {
+
+    /**
+     * Get the number of entries in the strategy
+     *
+     * @return the number of entries in the strategy
+     */
+    int size();
+
+    /**
+     * Get the class id stored at a given position in the strategy
+     *
+     * @param index the position in the strategy
+     * @return the id of the class at that position
+     */
+    int getClassId(int index);
+}
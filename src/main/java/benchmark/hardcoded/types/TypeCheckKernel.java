@@ -0,0 +1,55 @@
+package benchmark.hardcoded.types;
+
+/**
+ * Type checks the objects of a workload against a fixed class of the hierarchy. The kernels are generated by
+ * ClassGenerator, one per target class, such that the target of every check is a constant.
+ */
+public interface TypeCheckKernel {
+
+    /**
+     * Get the class the objects are checked against
+     *
+     * @return the simple name of the target class
+     */
+    String getTargetClassName();
+
+    /**
+     * Cast every object to the target class
+     *
+     * @param objects the workload; all objects must be instances of the target class
+     * @return the number of cast objects which are not null
+     */
+    long checkCast(Object[] objects);
+
+    /**
+     * Cast every object to the target class and call typeTag() on it
+     *
+     * @param objects the workload; all objects must be instances of the target class
+     * @return the sum of the type tags
+     */
+    long checkCastAndCall(Object[] objects);
+
+    /**
+     * Check if an object is an instance of the target class
+     *
+     * @param o the object
+     * @return true if the object is an instance of the target class
+     */
+    boolean isInstance(Object o);
+
+    /**
+     * Cast an object to the target class
+     *
+     * @param o the object, which must be an instance of the target class, or null
+     * @return the cast object
+     */
+    Object cast(Object o);
+
+    /**
+     * Check if every object is an instance of the target class
+     *
+     * @param objects the workload
+     * @return the number of objects which are instances of the target class
+     */
+    long instanceOf(Object[] objects);
+}
@@ -7,4 +7,8 @@ public class A0 {
         return "Hello, my name is A0.";
     }
 
+    public int typeTag() {
+        return 0;
+    }
+
 }
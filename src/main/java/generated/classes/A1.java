@@ -7,4 +7,9 @@ public class A1 extends A0 {
         return "Hello, my name is A0.A1.";
     }
 
+    @Override
+    public int typeTag() {
+        return 1;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A10 extends A0 {
         return "Hello, my name is A0.A10.";
     }
 
+    @Override
+    public int typeTag() {
+        return 10;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A11 extends A10 {
         return "Hello, my name is A0.A10.A11.";
     }
 
+    @Override
+    public int typeTag() {
+        return 11;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A12 extends A11 {
         return "Hello, my name is A0.A10.A11.A12.";
     }
 
+    @Override
+    public int typeTag() {
+        return 12;
+    }
+
 }
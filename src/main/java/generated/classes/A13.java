@@ -7,4 +7,9 @@ public class A13 extends A12 {
         return "Hello, my name is A0.A10.A11.A12.A13.";
     }
 
+    @Override
+    public int typeTag() {
+        return 13;
+    }
+
 }
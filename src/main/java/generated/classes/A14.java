@@ -7,4 +7,9 @@ public class A14 extends A13 {
         return "Hello, my name is A0.A10.A11.A12.A13.A14.";
     }
 
+    @Override
+    public int typeTag() {
+        return 14;
+    }
+
 }
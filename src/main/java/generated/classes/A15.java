@@ -7,4 +7,9 @@ public class A15 extends A12 {
         return "Hello, my name is A0.A10.A11.A12.A15.";
     }
 
+    @Override
+    public int typeTag() {
+        return 15;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A16 extends A15 {
         return "Hello, my name is A0.A10.A11.A12.A15.A16.";
     }
 
+    @Override
+    public int typeTag() {
+        return 16;
+    }
+
 }
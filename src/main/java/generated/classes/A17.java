@@ -7,4 +7,9 @@ public class A17 extends A11 {
         return "Hello, my name is A0.A10.A11.A17.";
     }
 
+    @Override
+    public int typeTag() {
+        return 17;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A18 extends A17 {
         return "Hello, my name is A0.A10.A11.A17.A18.";
     }
 
+    @Override
+    public int typeTag() {
+        return 18;
+    }
+
 }
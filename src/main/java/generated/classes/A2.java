@@ -7,4 +7,9 @@ public class A2 extends A1 {
         return "Hello, my name is A0.A1.A2.";
     }
 
+    @Override
+    public int typeTag() {
+        return 2;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A20 extends A18 {
         return "Hello, my name is A0.A10.A11.A17.A18.A20.";
     }
 
+    @Override
+    public int typeTag() {
+        return 20;
+    }
+
 }
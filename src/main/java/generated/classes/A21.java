@@ -7,4 +7,9 @@ public class A21 extends A18 {
         return "Hello, my name is A0.A10.A11.A17.A18.A21.";
     }
 
+    @Override
+    public int typeTag() {
+        return 21;
+    }
+
 }
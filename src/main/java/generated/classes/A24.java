@@ -7,4 +7,9 @@ public class A24 extends A23 {
         return "Hello, my name is A0.A10.A11.A17.A23.A24.";
     }
 
+    @Override
+    public int typeTag() {
+        return 24;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A26 extends A25 {
         return "Hello, my name is A0.A10.A11.A17.A25.A26.";
     }
 
+    @Override
+    public int typeTag() {
+        return 26;
+    }
+
 }
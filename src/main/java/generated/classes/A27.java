@@ -7,4 +7,9 @@ public class A27 extends A10 {
         return "Hello, my name is A0.A10.A27.";
     }
 
+    @Override
+    public int typeTag() {
+        return 27;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A28 extends A27 {
         return "Hello, my name is A0.A10.A27.A28.";
     }
 
+    @Override
+    public int typeTag() {
+        return 28;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A29 extends A28 {
         return "Hello, my name is A0.A10.A27.A28.A29.";
     }
 
+    @Override
+    public int typeTag() {
+        return 29;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A3 extends A2 {
         return "Hello, my name is A0.A1.A2.A3.";
     }
 
+    @Override
+    public int typeTag() {
+        return 3;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A30 extends A29 {
         return "Hello, my name is A0.A10.A27.A28.A29.A30.";
     }
 
+    @Override
+    public int typeTag() {
+        return 30;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A31 extends A28 {
         return "Hello, my name is A0.A10.A27.A28.A31.";
     }
 
+    @Override
+    public int typeTag() {
+        return 31;
+    }
+
 }
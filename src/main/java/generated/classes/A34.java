@@ -7,4 +7,9 @@ public class A34 extends A31 {
         return "Hello, my name is A0.A10.A27.A28.A31.A34.";
     }
 
+    @Override
+    public int typeTag() {
+        return 34;
+    }
+
 }
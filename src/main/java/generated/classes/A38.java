@@ -7,4 +7,9 @@ public class A38 extends A36 {
         return "Hello, my name is A0.A10.A27.A35.A36.A38.";
     }
 
+    @Override
+    public int typeTag() {
+        return 38;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A39 extends A36 {
         return "Hello, my name is A0.A10.A27.A35.A36.A39.";
     }
 
+    @Override
+    public int typeTag() {
+        return 39;
+    }
+
 }
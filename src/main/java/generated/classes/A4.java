@@ -7,4 +7,9 @@ public class A4 extends A3 {
         return "Hello, my name is A0.A1.A2.A3.A4.";
     }
 
+    @Override
+    public int typeTag() {
+        return 4;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A43 extends A41 {
         return "Hello, my name is A0.A10.A27.A35.A41.A43.";
     }
 
+    @Override
+    public int typeTag() {
+        return 43;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A45 extends A35 {
         return "Hello, my name is A0.A10.A27.A35.A45.";
     }
 
+    @Override
+    public int typeTag() {
+        return 45;
+    }
+
 }
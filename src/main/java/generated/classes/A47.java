@@ -7,4 +7,9 @@ public class A47 extends A45 {
         return "Hello, my name is A0.A10.A27.A35.A45.A47.";
     }
 
+    @Override
+    public int typeTag() {
+        return 47;
+    }
+
 }
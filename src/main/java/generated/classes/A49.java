@@ -7,4 +7,9 @@ public class A49 extends A48 {
         return "Hello, my name is A0.A10.A27.A35.A48.A49.";
     }
 
+    @Override
+    public int typeTag() {
+        return 49;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A5 extends A4 {
         return "Hello, my name is A0.A1.A2.A3.A4.A5.";
     }
 
+    @Override
+    public int typeTag() {
+        return 5;
+    }
+
 }
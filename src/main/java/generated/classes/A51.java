@@ -7,4 +7,9 @@ public class A51 extends A48 {
         return "Hello, my name is A0.A10.A27.A35.A48.A51.";
     }
 
+    @Override
+    public int typeTag() {
+        return 51;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A53 extends A52 {
         return "Hello, my name is A0.A10.A27.A52.A53.";
     }
 
+    @Override
+    public int typeTag() {
+        return 53;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A54 extends A53 {
         return "Hello, my name is A0.A10.A27.A52.A53.A54.";
     }
 
+    @Override
+    public int typeTag() {
+        return 54;
+    }
+
 }
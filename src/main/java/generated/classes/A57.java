@@ -7,4 +7,9 @@ public class A57 extends A27 {
         return "Hello, my name is A0.A10.A27.A57.";
     }
 
+    @Override
+    public int typeTag() {
+        return 57;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A58 extends A57 {
         return "Hello, my name is A0.A10.A27.A57.A58.";
     }
 
+    @Override
+    public int typeTag() {
+        return 58;
+    }
+
 }
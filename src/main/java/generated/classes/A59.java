@@ -7,4 +7,9 @@ public class A59 extends A58 {
         return "Hello, my name is A0.A10.A27.A57.A58.A59.";
     }
 
+    @Override
+    public int typeTag() {
+        return 59;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A60 extends A58 {
         return "Hello, my name is A0.A10.A27.A57.A58.A60.";
     }
 
+    @Override
+    public int typeTag() {
+        return 60;
+    }
+
 }
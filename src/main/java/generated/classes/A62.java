@@ -7,4 +7,9 @@ public class A62 extends A0 {
         return "Hello, my name is A0.A62.";
     }
 
+    @Override
+    public int typeTag() {
+        return 62;
+    }
+
 }
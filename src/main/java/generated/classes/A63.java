@@ -7,4 +7,9 @@ public class A63 extends A62 {
         return "Hello, my name is A0.A62.A63.";
     }
 
+    @Override
+    public int typeTag() {
+        return 63;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A64 extends A63 {
         return "Hello, my name is A0.A62.A63.A64.";
     }
 
+    @Override
+    public int typeTag() {
+        return 64;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A65 extends A64 {
         return "Hello, my name is A0.A62.A63.A64.A65.";
     }
 
+    @Override
+    public int typeTag() {
+        return 65;
+    }
+
 }
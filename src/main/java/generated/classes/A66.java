@@ -7,4 +7,9 @@ public class A66 extends A65 {
         return "Hello, my name is A0.A62.A63.A64.A65.A66.";
     }
 
+    @Override
+    public int typeTag() {
+        return 66;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A67 extends A63 {
         return "Hello, my name is A0.A62.A63.A67.";
     }
 
+    @Override
+    public int typeTag() {
+        return 67;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A7 extends A3 {
         return "Hello, my name is A0.A1.A2.A3.A7.";
     }
 
+    @Override
+    public int typeTag() {
+        return 7;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A71 extends A68 {
         return "Hello, my name is A0.A62.A63.A67.A68.A71.";
     }
 
+    @Override
+    public int typeTag() {
+        return 71;
+    }
+
 }
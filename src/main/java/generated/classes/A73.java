@@ -7,4 +7,9 @@ public class A73 extends A67 {
         return "Hello, my name is A0.A62.A63.A67.A73.";
     }
 
+    @Override
+    public int typeTag() {
+        return 73;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A74 extends A73 {
         return "Hello, my name is A0.A62.A63.A67.A73.A74.";
     }
 
+    @Override
+    public int typeTag() {
+        return 74;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A76 extends A67 {
         return "Hello, my name is A0.A62.A63.A67.A76.";
     }
 
+    @Override
+    public int typeTag() {
+        return 76;
+    }
+
 }
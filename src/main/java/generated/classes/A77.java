@@ -7,4 +7,9 @@ public class A77 extends A76 {
         return "Hello, my name is A0.A62.A63.A67.A76.A77.";
     }
 
+    @Override
+    public int typeTag() {
+        return 77;
+    }
+
 }
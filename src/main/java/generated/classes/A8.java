@@ -7,4 +7,9 @@ public class A8 extends A7 {
         return "Hello, my name is A0.A1.A2.A3.A7.A8.";
     }
 
+    @Override
+    public int typeTag() {
+        return 8;
+    }
+
 }
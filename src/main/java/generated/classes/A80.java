@@ -7,4 +7,9 @@ public class A80 extends A76 {
         return "Hello, my name is A0.A62.A63.A67.A76.A80.";
     }
 
+    @Override
+    public int typeTag() {
+        return 80;
+    }
+
 }
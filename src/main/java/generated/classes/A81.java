@@ -7,4 +7,9 @@ public class A81 extends A67 {
         return "Hello, my name is A0.A62.A63.A67.A81.";
     }
 
+    @Override
+    public int typeTag() {
+        return 81;
+    }
+
 }
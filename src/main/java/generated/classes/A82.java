@@ -7,4 +7,9 @@ public class A82 extends A81 {
         return "Hello, my name is A0.A62.A63.A67.A81.A82.";
     }
 
+    @Override
+    public int typeTag() {
+        return 82;
+    }
+
 }
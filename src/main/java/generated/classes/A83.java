@@ -7,4 +7,9 @@ public class A83 extends A62 {
         return "Hello, my name is A0.A62.A83.";
     }
 
+    @Override
+    public int typeTag() {
+        return 83;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A84 extends A83 {
         return "Hello, my name is A0.A62.A83.A84.";
     }
 
+    @Override
+    public int typeTag() {
+        return 84;
+    }
+
 }
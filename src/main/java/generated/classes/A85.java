@@ -7,4 +7,9 @@ public class A85 extends A84 {
         return "Hello, my name is A0.A62.A83.A84.A85.";
     }
 
+    @Override
+    public int typeTag() {
+        return 85;
+    }
+
 }
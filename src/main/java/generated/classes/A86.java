@@ -7,4 +7,9 @@ public class A86 extends A85 {
         return "Hello, my name is A0.A62.A83.A84.A85.A86.";
     }
 
+    @Override
+    public int typeTag() {
+        return 86;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A87 extends A85 {
         return "Hello, my name is A0.A62.A83.A84.A85.A87.";
     }
 
+    @Override
+    public int typeTag() {
+        return 87;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A88 extends A84 {
         return "Hello, my name is A0.A62.A83.A84.A88.";
     }
 
+    @Override
+    public int typeTag() {
+        return 88;
+    }
+
 }
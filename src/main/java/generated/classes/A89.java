@@ -7,4 +7,9 @@ public class A89 extends A88 {
         return "Hello, my name is A0.A62.A83.A84.A88.A89.";
     }
 
+    @Override
+    public int typeTag() {
+        return 89;
+    }
+
 }
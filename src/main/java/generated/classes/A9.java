@@ -7,4 +7,9 @@ public class A9 extends A7 {
         return "Hello, my name is A0.A1.A2.A3.A7.A9.";
     }
 
+    @Override
+    public int typeTag() {
+        return 9;
+    }
+
 }
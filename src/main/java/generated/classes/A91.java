@@ -7,4 +7,9 @@ public class A91 extends A88 {
         return "Hello, my name is A0.A62.A83.A84.A88.A91.";
     }
 
+    @Override
+    public int typeTag() {
+        return 91;
+    }
+
 }
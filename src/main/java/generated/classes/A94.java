@@ -7,4 +7,9 @@ public class A94 extends A93 {
         return "Hello, my name is A0.A62.A83.A84.A93.A94.";
     }
 
+    @Override
+    public int typeTag() {
+        return 94;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A97 extends A93 {
         return "Hello, my name is A0.A62.A83.A84.A93.A97.";
     }
 
+    @Override
+    public int typeTag() {
+        return 97;
+    }
+
 }
@@ -7,4 +7,9 @@ public class A98 extends A84 {
         return "Hello, my name is A0.A62.A83.A84.A98.";
     }
 
+    @Override
+    public int typeTag() {
+        return 98;
+    }
+
 }
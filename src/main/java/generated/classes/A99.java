@@ -9,4 +9,9 @@ public final class A99 extends A98 {
         return "Hello, my name is A0.A62.A83.A84.A98.A99.";
     }
 
+    @Override
+    public int typeTag() {
+        return 99;
+    }
+
 }
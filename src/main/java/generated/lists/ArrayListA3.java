@@ -0,0 +1,217 @@
+package generated.lists;
+
+import benchmark.hardcoded.types.ArrayListT;
+import benchmark.hardcoded.types.ListKernel;
+import generated.classes.A3;
+
+import java.util.*;
+
+/**
+ * A specialization of ArrayListT for A3, generated by ClassGenerator. The elements are stored in an
+ * array of A3, hence retrievals need no cast, while stores are checked against A3.
+ */
+public class ArrayListA3 implements RandomAccess, Cloneable, java.io.Serializable {
+
+    private static final long serialVersionUID = 8683452581122892189L;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final A3[] EMPTY_ELEMENTDATA = new A3[0];
+    private static final A3[] DEFAULTCAPACITY_EMPTY_ELEMENTDATA = new A3[0];
+
+    /**
+     * The array buffer into which the elements of the ArrayList are stored.
+     * The capacity of the ArrayList is the length of this array buffer.
+     */
+    transient A3[] elementData;
+
+    /**
+     * The size of the ArrayList (the number of elements it contains).
+     *
+     * @serial
+     */
+    private int size;
+
+    /**
+     * The default constructor which creates a custom ArrayList with an initial capacity of 10 elements
+     */
+    public ArrayListA3() {
+        this(10);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param  initialCapacity  the initial capacity of the list
+     * @throws IllegalArgumentException if the specified initial capacity
+     *         is negative
+     */
+    public ArrayListA3(int initialCapacity) {
+        if (initialCapacity > 0) {
+            this.elementData = new A3[initialCapacity];
+        } else {
+            if (initialCapacity != 0) {
+                throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+            }
+
+            this.elementData = EMPTY_ELEMENTDATA;
+        }
+    }
+
+    /**
+     * A version of rangeCheck used by add and addAll.
+     */
+    private void rangeCheckForAdd(int index) {
+        if (index > size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    public boolean add(A3 var1) {
+        this.ensureCapacityInternal(this.size + 1);
+        this.elementData[this.size++] = var1;
+        return true;
+    }
+
+    public void add(int var1, A3 var2) {
+        this.rangeCheckForAdd(var1);
+        this.ensureCapacityInternal(this.size + 1);
+        System.arraycopy(this.elementData, var1, this.elementData, var1 + 1, this.size - var1);
+        this.elementData[var1] = var2;
+        ++this.size;
+    }
+
+    private void ensureCapacityInternal(int minCapacity) {
+        this.ensureExplicitCapacity(calculateCapacity(this.elementData, minCapacity));
+    }
+
+    private static int calculateCapacity(A3[] var0, int var1) {
+        return var0 == DEFAULTCAPACITY_EMPTY_ELEMENTDATA ? Math.max(10, var1) : var1;
+    }
+
+    private void ensureExplicitCapacity(int var1) {
+        if (var1 - this.elementData.length > 0) {
+            this.grow(var1);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        // overflow-conscious code
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity - minCapacity < 0)
+            newCapacity = minCapacity;
+        if (newCapacity - MAX_ARRAY_SIZE > 0)
+            newCapacity = hugeCapacity(minCapacity);
+        // minCapacity is usually close to size, so this is a win:
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    private static int hugeCapacity(int minCapacity) {
+        if (minCapacity < 0) // overflow
+            throw new OutOfMemoryError();
+        return (minCapacity > MAX_ARRAY_SIZE) ?
+                Integer.MAX_VALUE :
+                MAX_ARRAY_SIZE;
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+
+    private void rangeCheck(int index) {
+        if (index >= size)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    public A3 get(int i) {
+        rangeCheck(i);
+
+        return elementData[i];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Builds and traverses a generic and a specialized list of A3, such that the static type of every
+     * stored and retrieved element is A3.
+     */
+    public static class Kernel implements ListKernel {
+        private ArrayListT<A3> genericList;
+        private ArrayListA3 hardcodedList;
+
+        @Override
+        public String getElementClassName() {
+            return "A3";
+        }
+
+        @Override
+        public void createGeneric(Object[] objects) {
+            ArrayListT<A3> list = new ArrayListT<>(objects.length);
+
+            for (Object o : objects)
+                list.add((A3) o);
+
+            this.genericList = list;
+        }
+
+        @Override
+        public void createHardcoded(Object[] objects) {
+            ArrayListA3 list = new ArrayListA3(objects.length);
+
+            for (Object o : objects)
+                list.add((A3) o);
+
+            this.hardcodedList = list;
+        }
+
+        @Override
+        public long retrieveGeneric() {
+            ArrayListT<A3> list = this.genericList;
+            long count = 0;
+
+            for (int j = 0; j < list.size(); ++j) {
+                A3 a = list.get(j);
+                if (a != null)
+                    ++count;
+            }
+
+            return count;
+        }
+
+        @Override
+        public long retrieveHardcoded() {
+            ArrayListA3 list = this.hardcodedList;
+            long count = 0;
+
+            for (int j = 0; j < list.size(); ++j) {
+                A3 a = list.get(j);
+                if (a != null)
+                    ++count;
+            }
+
+            return count;
+        }
+
+        @Override
+        public long callGeneric() {
+            ArrayListT<A3> list = this.genericList;
+            long sum = 0;
+
+            for (int j = 0; j < list.size(); ++j)
+                sum += list.get(j).typeTag();
+
+            return sum;
+        }
+
+        @Override
+        public long callHardcoded() {
+            ArrayListA3 list = this.hardcodedList;
+            long sum = 0;
+
+            for (int j = 0; j < list.size(); ++j)
+                sum += list.get(j).typeTag();
+
+            return sum;
+        }
+    }
+}